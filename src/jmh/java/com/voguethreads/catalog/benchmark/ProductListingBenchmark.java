@@ -0,0 +1,278 @@
+package com.voguethreads.catalog.benchmark;
+
+import com.voguethreads.catalog.CatalogServiceApplication;
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductFacetsResponse;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.mapper.ProductMapper;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import com.voguethreads.catalog.repository.ProductSummary;
+import com.voguethreads.catalog.service.ProductFacetService;
+import com.voguethreads.catalog.service.ProductFilter;
+import com.voguethreads.catalog.service.ProductService;
+import com.voguethreads.catalog.service.ProductSnapshotService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ProductService} listing paths against an embedded H2 catalog seeded with 100k products.
+ *
+ * <p>Boots the application context without a web server and seeds rows with plain JDBC batches,
+ * so the measured calls go through the real repository, mapper and transaction setup. The
+ * listing indexes from the Flyway migrations are recreated since the schema comes from Hibernate.
+ *
+ * <p>The {@code hydrate*} benchmarks load one 20-row page by primary key, so the cost of entity
+ * hydration versus the listing projection is not hidden behind the scan. Run with
+ * {@code -prof gc} to compare allocation per page ({@code gc.alloc.rate.norm}).
+ *
+ * <p>The {@code snapshot*} benchmarks serve anonymous browse pages from the in-memory snapshot,
+ * built once after seeding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductListingBenchmark {
+
+    private static final String[] WORDS = {
+            "cotton", "linen", "denim", "leather", "silk", "wool", "canvas", "suede",
+            "classic", "slim", "relaxed", "cropped", "oversized", "tailored", "vintage", "sport"
+    };
+
+    @Param("100000")
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductFacetService productFacetService;
+    private ProductMapper productMapper;
+    private ProductRepository productRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnlyTransaction;
+    private String secondPageCursor;
+    private List<Long> pageIds;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CatalogServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                // Command-line arguments so they win over the test application.yml
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--snapshot.enabled=true",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.voguethreads=WARN");
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(ProductSnapshotService.class).rebuild();
+        productService = context.getBean(ProductService.class);
+        productFacetService = context.getBean(ProductFacetService.class);
+        productMapper = context.getBean(ProductMapper.class);
+        productRepository = context.getBean(ProductRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        secondPageCursor = productService.listProductsByCursor(null, 20, ProductFilter.of(null, null), null).getNextCursor();
+        pageIds = new ArrayList<>();
+        for (long id = rows / 2; id < rows / 2 + 20; id++) {
+            pageIds.add(id);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> firstPage() {
+        return productService.listProducts(1, 20, ProductFilter.of(null, null), null, null, false);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> firstPageSparseFields() {
+        return productService.listProducts(1, 20, ProductFilter.of(null, null), null, "name,price,inventory", false);
+    }
+
+    /** Baseline: one page loaded as managed entities with batch-loaded tags, in a read-only transaction. */
+    @Benchmark
+    public List<ProductResponse> hydrateEntities() {
+        return readOnlyTransaction.execute(status -> entityManager
+                .createQuery("SELECT p FROM Product p WHERE p.id IN :ids", Product.class)
+                .setParameter("ids", pageIds)
+                .getResultList()
+                .stream()
+                .map(productMapper::toResponse)
+                .toList());
+    }
+
+    /** The same page through the listing projection and one tag query. */
+    @Benchmark
+    public List<ProductResponse> hydrateProjection() {
+        return readOnlyTransaction.execute(status -> toResponses(
+                productRepository.findSummariesByIdIn(pageIds, true), true));
+    }
+
+    /** The same page without description and tags, as requested by {@code fields=name,price,inventory}. */
+    @Benchmark
+    public List<ProductResponse> hydrateProjectionSparse() {
+        return readOnlyTransaction.execute(status -> toResponses(
+                productRepository.findSummariesByIdIn(pageIds, false), false));
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> deepOffsetPage() {
+        return productService.listProducts(rows / 20 / 2, 20, ProductFilter.of(null, null), null, null, false);
+    }
+
+    /** The same deep page for an anonymous browser, from the in-memory snapshot. */
+    @Benchmark
+    public PagedResponse<ProductResponse> snapshotDeepPage() {
+        return productService.browseProducts(rows / 20 / 2, 20, null);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> snapshotCategoryPage() {
+        return productService.browseProducts(10, 20, "category-7");
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> cursorPage() {
+        return productService.listProductsByCursor(secondPageCursor, 20, ProductFilter.of(null, null), null);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> categoryPage() {
+        return productService.listProducts(1, 20, ProductFilter.of(null, "category-7"), null, null, false);
+    }
+
+    /** {@link #categoryPage} with {@code includeTotal=true}: the same page plus a full count. */
+    @Benchmark
+    public PagedResponse<ProductResponse> categoryPageWithTotal() {
+        return productService.listProducts(1, 20, ProductFilter.of(null, "category-7"), null, null, true);
+    }
+
+    /** In-stock products of a category in a price range, cheapest first. */
+    @Benchmark
+    public PagedResponse<ProductResponse> categoryPriceRangePage() {
+        ProductFilter filter = ProductFilter.builder()
+                .category("category-7").minAmount(5_000).maxAmount(10_000).inStock(true).build();
+        return productService.listProducts(1, 20, filter, "price_asc", null, false);
+    }
+
+    /** Products carrying every tag; each row has two tags, so one in sixteen matches. */
+    @Benchmark
+    public PagedResponse<ProductResponse> tagsAllPage() {
+        return productService.listProducts(1, 20, ProductFilter.of(null, null, List.of("linen", "silk"), "all"),
+                null, null, false);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> tagsAnyCursorPage() {
+        return productService.listProductsByCursor(null, 20,
+                ProductFilter.of(null, null, List.of("linen", "suede", "vintage"), "any"), null);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> searchPage() {
+        return productService.listProducts(1, 20, ProductFilter.of("tailored", null), null, null, false);
+    }
+
+    @Benchmark
+    public PagedResponse<ProductResponse> relevanceSearchPage() {
+        return productService.listProducts(1, 20, ProductFilter.of("tailored", null), "relevance", null, false);
+    }
+
+    /** Facets for a search; searches bypass the facet cache, so this is the full grouped query. */
+    @Benchmark
+    public ProductFacetsResponse searchFacets() {
+        return productFacetService.getFacets(ProductFilter.of("tailored", null));
+    }
+
+    // Roughly 500 characters, closer to real product copy than a one-liner
+    private static String description(int i, String word) {
+        StringBuilder description = new StringBuilder(word).append(" garment, item ").append(i).append('.');
+        for (int j = 0; description.length() < 500; j++) {
+            description.append(' ').append(WORDS[(i * 7 + j) % WORDS.length]).append(" detailing");
+        }
+        return description.toString();
+    }
+
+    private List<ProductResponse> toResponses(List<ProductSummary> summaries, boolean withTags) {
+        Map<Long, List<String>> tags = new HashMap<>();
+        if (withTags) {
+            for (Object[] row : productRepository.findTagsByProductIdIn(pageIds)) {
+                tags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+        List<ProductResponse> responses = new ArrayList<>(summaries.size());
+        for (ProductSummary summary : summaries) {
+            responses.add(productMapper.toResponse(summary, withTags ? tags.get(summary.id()) : null));
+        }
+        return responses;
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        List<Object[]> products = new ArrayList<>(1_000);
+        List<Object[]> tags = new ArrayList<>(2_000);
+        for (int i = 1; i <= rows; i++) {
+            String word = WORDS[i % WORDS.length];
+            Timestamp createdAt = Timestamp.from(base.plusSeconds(i));
+            products.add(new Object[]{
+                    (long) i, "JMH-" + i, word + " " + WORDS[(i * 3) % WORDS.length] + " piece " + i,
+                    description(i, word),
+                    "USD", 1000 + (i % 20_000), i % 50, i % 50 > 0, "category-" + (i % 25), createdAt, createdAt});
+            tags.add(new Object[]{(long) i, word});
+            tags.add(new Object[]{(long) i, WORDS[(i * 5) % WORDS.length]});
+
+            if (products.size() == 1_000 || i == rows) {
+                jdbc.batchUpdate("INSERT INTO products (id, sku, name, description, currency, amount, quantity, " +
+                        "in_stock, category, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", products);
+                jdbc.batchUpdate("INSERT INTO product_tags (product_id, tag) VALUES (?, ?)", tags);
+                products.clear();
+                tags.clear();
+            }
+        }
+        jdbc.execute("CREATE INDEX idx_products_created_at_id ON products (created_at DESC, id DESC)");
+        jdbc.execute("CREATE INDEX idx_products_category_created_at_id ON products (category, created_at DESC, id DESC)");
+        // H2 has no INCLUDE; its secondary index entries carry the row key (id) anyway
+        jdbc.execute("CREATE INDEX idx_products_facets ON products (category, in_stock, amount)");
+        jdbc.execute("CREATE INDEX idx_products_amount_id ON products (amount, id)");
+        jdbc.execute("CREATE INDEX idx_products_category_amount_id ON products (category, amount, id)");
+        jdbc.execute("CREATE INDEX idx_product_tags_product_id_tag ON product_tags (product_id, tag)");
+        jdbc.execute("CREATE INDEX idx_product_tags_tag_product_id ON product_tags (tag, product_id)");
+        jdbc.execute("ANALYZE");
+    }
+}
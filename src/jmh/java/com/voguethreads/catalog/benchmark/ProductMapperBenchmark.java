@@ -0,0 +1,98 @@
+package com.voguethreads.catalog.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.mapper.ProductMapper;
+import com.voguethreads.catalog.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning one listing page of entities into the JSON body the controller returns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMapperBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ProductMapper mapper = new ProductMapper();
+    // Same module set Spring Boot registers (JavaTimeModule, ISO dates)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Product product;
+    private List<Product> page;
+    private PagedResponse<ProductResponse> response;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(product(i));
+        }
+        product = page.get(0);
+        response = toPage(page);
+    }
+
+    @Benchmark
+    public ProductResponse toResponse() {
+        return mapper.toResponse(product);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapAndSerializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(toPage(page));
+    }
+
+    private PagedResponse<ProductResponse> toPage(List<Product> products) {
+        return PagedResponse.<ProductResponse>builder()
+                .items(products.stream().map(mapper::toResponse).toList())
+                .page(1)
+                .pageSize(PAGE_SIZE)
+                .totalItems(100_000L)
+                .totalPages(5_000)
+                .build();
+    }
+
+    private static Product product(int i) {
+        Instant now = Instant.parse("2024-01-15T10:30:00Z");
+        return Product.builder()
+                .id((long) i + 1)
+                .sku("TSHIRT-" + i)
+                .name("Classic cotton tee " + i)
+                .description("Soft combed cotton t-shirt with a relaxed fit, item " + i)
+                .currency("USD")
+                .amount(2499 + i)
+                .quantity(i % 50)
+                .inStock(i % 50 > 0)
+                .category("tops")
+                .tags(List.of("cotton", "casual", "summer"))
+                .createdAt(now.minusSeconds(i))
+                .updatedAt(now)
+                .build();
+    }
+}
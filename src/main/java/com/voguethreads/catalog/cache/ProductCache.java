@@ -0,0 +1,124 @@
+package com.voguethreads.catalog.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.voguethreads.catalog.config.ReplicaRoutingDataSource;
+import com.voguethreads.catalog.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+
+/**
+ * Bounded read-through cache of ready-to-serve product responses, keyed by product id. Loaders
+ * read from the primary, so a lagging replica cannot refill an entry a write just evicted.
+ */
+@Component
+@Slf4j
+public class ProductCache {
+
+    private final Cache<Long, ProductResponse> cache;
+    private final List<LongConsumer> evictionListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> pageEvictionListeners = new CopyOnWriteArrayList<>();
+
+    public ProductCache(
+            @Value("${cache.products.max-size:10000}") long maxSize,
+            @Value("${cache.products.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public ProductResponse get(Long id, Function<Long, ProductResponse> loader) {
+        return cache.get(id, key -> ReplicaRoutingDataSource.onPrimary(() -> loader.apply(key)));
+    }
+
+    /**
+     * Returns the cached entries and loads all missing ids with one call to {@code loader}.
+     * Ids the loader does not return are left out of the result and not cached.
+     */
+    public Map<Long, ProductResponse> getAll(
+            Collection<Long> ids, Function<Set<? extends Long>, Map<Long, ProductResponse>> loader) {
+        return cache.getAll(ids, missing -> ReplicaRoutingDataSource.onPrimary(() -> loader.apply(missing)));
+    }
+
+    public ProductResponse getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Registers a callback run on every {@link #evict}, for caches derived from product data.
+     */
+    public void addEvictionListener(LongConsumer listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * Registers a callback run on every {@link #evict} and {@link #evictPages}, for caches of
+     * listing pages, which any product write can change.
+     */
+    public void addPageEvictionListener(Runnable listener) {
+        pageEvictionListeners.add(listener);
+    }
+
+    /**
+     * Drops the entry now and, when called inside a transaction, again after commit so a
+     * concurrent reader cannot re-populate it with the pre-commit state.
+     */
+    public void evict(Long id) {
+        invalidate(id);
+        afterCompletion(() -> invalidate(id));
+        log.debug("Evicted product {} from cache", id);
+    }
+
+    /**
+     * Drops cached listing pages, now and after commit like {@link #evict}, without touching
+     * any product entry. For writes that only add products, such as one bulk import chunk.
+     */
+    public void evictPages() {
+        invalidatePages();
+        afterCompletion(this::invalidatePages);
+    }
+
+    private void invalidate(Long id) {
+        cache.invalidate(id);
+        for (LongConsumer listener : evictionListeners) {
+            listener.accept(id);
+        }
+        invalidatePages();
+    }
+
+    private void invalidatePages() {
+        for (Runnable listener : pageEvictionListeners) {
+            listener.run();
+        }
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,612 @@
+package com.voguethreads.catalog.cache;
+
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.repository.ProductSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, column-oriented copy of the catalog for browse listings, newest first
+ * ({@code createdAt DESC, id DESC}, the order of the listing index).
+ *
+ * <p>Every column is a primitive array indexed by row. Categories, currencies and tags are
+ * codes into one string dictionary. SKU, name and description are UTF-8 bytes in a few large
+ * byte arrays (the text arena), addressed by chunk and offset. A snapshot of a million products
+ * is then a few dozen arrays instead of millions of objects: the collector never has to trace
+ * it, and a page is decoded into response objects only when it is served.
+ *
+ * <p>{@link #withChanges} derives the next snapshot from this one without copying the columns.
+ * Changed rows go into a small overlay, kept as loaded and in listing order, and the column rows
+ * they replace or remove are hidden. {@link #page} merges the two when it reads. Once the overlay
+ * outgrows its limit it is compacted: unchanged rows are copied into new columns in runs without
+ * decoding, and text chunks are shared rather than copied, so replaced text stays in memory
+ * until the next full rebuild.
+ */
+public final class ProductSnapshot {
+
+    /** Product data for one row, as loaded from the database. */
+    public record Row(ProductSummary product, List<String> tags) {
+    }
+
+    /** Approximate heap taken by a snapshot, by column group. */
+    public record MemoryUsage(int rows, long numericBytes, long textBytes, long tagBytes,
+                              long dictionaryBytes, long indexBytes, long overlayBytes) {
+
+        public long totalBytes() {
+            return numericBytes + textBytes + tagBytes + dictionaryBytes + indexBytes + overlayBytes;
+        }
+    }
+
+    /** Rows in listing order for one page, plus the number of rows matching the filter. */
+    public record Page(List<ProductResponse> items, int totalItems) {
+    }
+
+    private static final Comparator<Row> LISTING_ORDER = Comparator
+            .comparing((Row row) -> row.product().createdAt()).reversed()
+            .thenComparing(row -> row.product().id(), Comparator.reverseOrder());
+
+    private static final int MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+    private static final int NO_CODE = -1;
+    private static final int NO_TEXT = -1;
+
+    private final int size;
+    private final long[] ids;
+    private final long[] createdAt;  // epoch micros
+    private final long[] updatedAt;
+    private final int[] amounts;
+    private final int[] quantities;
+    private final boolean[] inStock;
+    private final int[] currencies;  // dictionary codes
+    private final int[] categories;  // dictionary codes, NO_CODE for none
+    private final int[] tagStarts;   // row i has tags[tagStarts[i] .. tagStarts[i + 1])
+    private final int[] tags;
+    private final long[] textAddresses;  // chunk index << 32 | offset of the row's SKU
+    private final int[] textLengths;     // SKU, name and description byte lengths; NO_TEXT for no description
+    private final byte[][] chunks;
+    private final String[] dictionary;
+    private final Map<String, Integer> codes;
+    private final int[][] categoryRows;  // by category code, ascending row numbers
+    private final long[] sortedIds;      // ids ascending, to find the row a change replaces
+    private final int[] sortedIdRows;    // row of each of sortedIds
+    private final List<Row> overlay;     // changed since the columns were built, in listing order
+    private final int[] hidden;          // ascending rows replaced or removed by the overlay
+
+    private ProductSnapshot(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.createdAt = Arrays.copyOf(builder.createdAt, size);
+        this.updatedAt = Arrays.copyOf(builder.updatedAt, size);
+        this.amounts = Arrays.copyOf(builder.amounts, size);
+        this.quantities = Arrays.copyOf(builder.quantities, size);
+        this.inStock = Arrays.copyOf(builder.inStock, size);
+        this.currencies = Arrays.copyOf(builder.currencies, size);
+        this.categories = Arrays.copyOf(builder.categories, size);
+        this.tagStarts = Arrays.copyOf(builder.tagStarts, size + 1);
+        this.tags = Arrays.copyOf(builder.tags, builder.tagCount);
+        this.textAddresses = Arrays.copyOf(builder.textAddresses, size);
+        this.textLengths = Arrays.copyOf(builder.textLengths, size * 3);
+        this.chunks = builder.chunks.toArray(new byte[0][]);
+        this.dictionary = builder.dictionary.toArray(new String[0]);
+        this.codes = builder.codes;
+        this.categoryRows = indexCategories(categories, dictionary.length);
+        this.sortedIds = Arrays.copyOf(ids, size);
+        Arrays.sort(sortedIds);
+        this.sortedIdRows = new int[size];
+        for (int row = 0; row < size; row++) {
+            sortedIdRows[Arrays.binarySearch(sortedIds, ids[row])] = row;
+        }
+        this.overlay = List.of();
+        this.hidden = new int[0];
+    }
+
+    // Shares the columns of base
+    private ProductSnapshot(ProductSnapshot base, List<Row> overlay, int[] hidden) {
+        this.size = base.size;
+        this.ids = base.ids;
+        this.createdAt = base.createdAt;
+        this.updatedAt = base.updatedAt;
+        this.amounts = base.amounts;
+        this.quantities = base.quantities;
+        this.inStock = base.inStock;
+        this.currencies = base.currencies;
+        this.categories = base.categories;
+        this.tagStarts = base.tagStarts;
+        this.tags = base.tags;
+        this.textAddresses = base.textAddresses;
+        this.textLengths = base.textLengths;
+        this.chunks = base.chunks;
+        this.dictionary = base.dictionary;
+        this.codes = base.codes;
+        this.categoryRows = base.categoryRows;
+        this.sortedIds = base.sortedIds;
+        this.sortedIdRows = base.sortedIdRows;
+        this.overlay = overlay;
+        this.hidden = hidden;
+    }
+
+    public static ProductSnapshot empty() {
+        return new Builder(null, 0).build();
+    }
+
+    /**
+     * Starts a snapshot from rows supplied in listing order, as with {@code ORDER BY created_at DESC, id DESC}.
+     */
+    public static Builder builder(int expectedRows) {
+        return new Builder(null, expectedRows);
+    }
+
+    public int size() {
+        return size - hidden.length + overlay.size();
+    }
+
+    /**
+     * Returns a snapshot with {@code changed} rows inserted or replaced and {@code removed} ids dropped.
+     * An id in both is treated as changed. The work is proportional to the overlay, not the catalog,
+     * until the overlay holds more than {@code maxOverlayRows} rows and is folded into new columns.
+     */
+    public ProductSnapshot withChanges(Collection<Row> changed, Collection<Long> removed, int maxOverlayRows) {
+        Map<Long, Row> rows = new HashMap<>();
+        for (Row row : overlay) {
+            rows.put(row.product().id(), row);
+        }
+        int[] nextHidden = Arrays.copyOf(hidden, hidden.length + removed.size() + changed.size());
+        int count = hidden.length;
+        for (Long id : removed) {
+            rows.remove(id);
+            count = hide(id, nextHidden, count);
+        }
+        for (Row row : changed) {
+            rows.put(row.product().id(), row);
+            count = hide(row.product().id(), nextHidden, count);
+        }
+        List<Row> nextOverlay = new ArrayList<>(rows.values());
+        nextOverlay.sort(LISTING_ORDER);
+
+        ProductSnapshot next = new ProductSnapshot(this, List.copyOf(nextOverlay),
+                Arrays.stream(nextHidden, 0, count).sorted().distinct().toArray());
+        return next.overlay.size() + next.hidden.length > maxOverlayRows ? next.compact() : next;
+    }
+
+    /**
+     * Returns up to {@code limit} rows from {@code offset} in listing order, optionally only one category.
+     */
+    public Page page(String category, int offset, int limit) {
+        int[] matching = null;
+        List<Row> added = overlay;
+        int[] skipped = hidden;
+        if (category != null) {
+            Integer code = codes.get(category);
+            matching = code != null && categoryRows[code] != null ? categoryRows[code] : new int[0];
+            added = overlay.stream().filter(row -> category.equals(row.product().category())).toList();
+            skipped = positionsOf(hidden, matching);
+        }
+        int columnRows = matching != null ? matching.length : size;
+        int total = columnRows - skipped.length + added.size();
+
+        // Runs of column rows between overlay rows and hidden rows are skipped or decoded whole
+        List<ProductResponse> items = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+        int toSkip = offset;
+        int position = 0;
+        int nextAdded = 0;
+        int nextSkipped = 0;
+        while (items.size() < limit) {
+            int addedAt = nextAdded < added.size() ? insertionPoint(added.get(nextAdded), matching, columnRows)
+                    : Integer.MAX_VALUE;
+            int skippedAt = nextSkipped < skipped.length ? skipped[nextSkipped] : Integer.MAX_VALUE;
+            int runEnd = Math.min(columnRows, Math.min(addedAt, skippedAt));
+            if (toSkip >= runEnd - position) {
+                toSkip -= runEnd - position;
+                position = runEnd;
+            } else {
+                position += toSkip;
+                toSkip = 0;
+                while (position < runEnd && items.size() < limit) {
+                    items.add(toResponse(matching != null ? matching[position] : position));
+                    position++;
+                }
+                if (items.size() == limit) {
+                    break;
+                }
+            }
+            if (addedAt <= skippedAt && addedAt != Integer.MAX_VALUE) {
+                if (toSkip > 0) {
+                    toSkip--;
+                } else {
+                    items.add(toResponse(added.get(nextAdded)));
+                }
+                nextAdded++;
+            } else if (skippedAt != Integer.MAX_VALUE) {
+                position++;
+                nextSkipped++;
+            } else {
+                break;
+            }
+        }
+        return new Page(items, total);
+    }
+
+    public MemoryUsage memoryUsage() {
+        long numeric = arrayBytes(size, 8) * 4 + arrayBytes(size, 4) * 4 + arrayBytes(size, 1);
+        long text = arrayBytes(size * 3, 4) + arrayBytes(chunks.length, 8);
+        for (byte[] chunk : chunks) {
+            text += arrayBytes(chunk.length, 1);
+        }
+        long tagBytes = arrayBytes(size + 1, 4) + arrayBytes(tags.length, 4);
+        // String (24) + byte[] header (16) + map node and boxed code (~48), Latin-1 characters
+        long dictionaryBytes = arrayBytes(dictionary.length, 8);
+        for (String value : dictionary) {
+            dictionaryBytes += 88 + value.length();
+        }
+        long index = arrayBytes(categoryRows.length, 8) + arrayBytes(size, 8) + arrayBytes(size, 4);
+        for (int[] rows : categoryRows) {
+            index += rows != null ? arrayBytes(rows.length, 4) : 0;
+        }
+        // Summary record and its boxed and String fields (~240), tag list entries (~48), Latin-1 text
+        long overlayBytes = arrayBytes(overlay.size(), 8) + arrayBytes(hidden.length, 4);
+        for (Row row : overlay) {
+            overlayBytes += 240 + textLength(row.product()) + 48L * (row.tags() != null ? row.tags().size() : 0);
+        }
+        return new MemoryUsage(size(), numeric, text, tagBytes, dictionaryBytes, index, overlayBytes);
+    }
+
+    // Folds the overlay into new columns, copying the unchanged rows around it in runs
+    private ProductSnapshot compact() {
+        Builder builder = new Builder(this, size());
+        long textBytes = 0;
+        for (Row row : overlay) {
+            textBytes += utf8Length(row.product().sku()) + utf8Length(row.product().name())
+                    + utf8Length(row.product().description());
+        }
+        builder.exactText = (int) Math.min(textBytes, MAX_CHUNK_SIZE);
+
+        int next = 0;
+        int nextHidden = 0;
+        int runStart = 0;
+        for (int row = 0; row < size; row++) {
+            boolean skip = nextHidden < hidden.length && hidden[nextHidden] == row;
+            boolean insertBefore = next < overlay.size() && precedes(overlay.get(next), row);
+            if (skip || insertBefore) {
+                builder.copy(this, runStart, row);
+                runStart = skip ? row + 1 : row;
+                while (next < overlay.size() && precedes(overlay.get(next), row)) {
+                    builder.add(overlay.get(next++));
+                }
+                if (skip) {
+                    nextHidden++;
+                }
+            }
+        }
+        builder.copy(this, runStart, size);
+        while (next < overlay.size()) {
+            builder.add(overlay.get(next++));
+        }
+        return builder.build();
+    }
+
+    // Adds the column row holding id, if any, to rows
+    private int hide(long id, int[] rows, int count) {
+        int index = Arrays.binarySearch(sortedIds, id);
+        if (index >= 0) {
+            rows[count++] = sortedIdRows[index];
+        }
+        return count;
+    }
+
+    // First position in the listed column rows that the overlay row goes before
+    private int insertionPoint(Row row, int[] matching, int columnRows) {
+        int low = 0;
+        int high = columnRows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (precedes(row, matching != null ? matching[middle] : middle)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    // Positions within matching of the hidden rows in it, ascending like both
+    private static int[] positionsOf(int[] rows, int[] matching) {
+        int[] positions = new int[rows.length];
+        int count = 0;
+        for (int row : rows) {
+            int position = Arrays.binarySearch(matching, row);
+            if (position >= 0) {
+                positions[count++] = position;
+            }
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    private boolean precedes(Row incoming, int row) {
+        long created = toMicros(incoming.product().createdAt());
+        return created > createdAt[row] || (created == createdAt[row] && incoming.product().id() > ids[row]);
+    }
+
+    private ProductResponse toResponse(int row) {
+        long address = textAddresses[row];
+        byte[] chunk = chunks[(int) (address >>> 32)];
+        int offset = (int) address;
+        int skuLength = textLengths[row * 3];
+        int nameLength = textLengths[row * 3 + 1];
+        int descriptionLength = textLengths[row * 3 + 2];
+        String sku = new String(chunk, offset, skuLength, StandardCharsets.UTF_8);
+        String name = new String(chunk, offset + skuLength, nameLength, StandardCharsets.UTF_8);
+        String description = descriptionLength == NO_TEXT ? null
+                : new String(chunk, offset + skuLength + nameLength, descriptionLength, StandardCharsets.UTF_8);
+
+        List<String> rowTags = new ArrayList<>(tagStarts[row + 1] - tagStarts[row]);
+        for (int i = tagStarts[row]; i < tagStarts[row + 1]; i++) {
+            rowTags.add(dictionary[tags[i]]);
+        }
+        return ProductResponse.builder()
+                .id("prod_" + ids[row])
+                .sku(sku)
+                .name(name)
+                .description(description)
+                .price(ProductResponse.PriceInfo.builder()
+                        .currency(dictionary[currencies[row]])
+                        .amount(amounts[row])
+                        .build())
+                .inventory(ProductResponse.InventoryInfo.builder()
+                        .inStock(inStock[row])
+                        .quantity(quantities[row])
+                        .build())
+                .category(categories[row] == NO_CODE ? null : dictionary[categories[row]])
+                .tags(rowTags)
+                .createdAt(toInstant(createdAt[row]))
+                .updatedAt(toInstant(updatedAt[row]))
+                .build();
+    }
+
+    // Decoded as a column row would be, timestamps truncated to the stored micros
+    private static ProductResponse toResponse(Row row) {
+        ProductSummary product = row.product();
+        return ProductResponse.builder()
+                .id("prod_" + product.id())
+                .sku(product.sku())
+                .name(product.name())
+                .description(product.description())
+                .price(ProductResponse.PriceInfo.builder()
+                        .currency(product.currency())
+                        .amount(product.amount())
+                        .build())
+                .inventory(ProductResponse.InventoryInfo.builder()
+                        .inStock(Boolean.TRUE.equals(product.inStock()))
+                        .quantity(product.quantity())
+                        .build())
+                .category(product.category())
+                .tags(row.tags() != null ? new ArrayList<>(row.tags()) : new ArrayList<>())
+                .createdAt(toInstant(toMicros(product.createdAt())))
+                .updatedAt(toInstant(toMicros(product.updatedAt())))
+                .build();
+    }
+
+    private static int[][] indexCategories(int[] categories, int dictionarySize) {
+        int[] counts = new int[dictionarySize];
+        for (int code : categories) {
+            if (code != NO_CODE) {
+                counts[code]++;
+            }
+        }
+        int[][] rows = new int[dictionarySize][];
+        for (int code = 0; code < dictionarySize; code++) {
+            if (counts[code] > 0) {
+                rows[code] = new int[counts[code]];
+                counts[code] = 0;
+            }
+        }
+        for (int row = 0; row < categories.length; row++) {
+            int code = categories[row];
+            if (code != NO_CODE) {
+                rows[code][counts[code]++] = row;
+            }
+        }
+        return rows;
+    }
+
+    private static long textLength(ProductSummary product) {
+        return product.sku().length() + product.name().length()
+                + (product.description() != null ? product.description().length() : 0);
+    }
+
+    private static int utf8Length(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+
+    private static long arrayBytes(int length, int width) {
+        return 16 + (long) length * width;
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000 + instant.getNano() / 1_000;
+    }
+
+    private static Instant toInstant(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000), Math.floorMod(micros, 1_000_000) * 1_000L);
+    }
+
+    /**
+     * Appends rows in listing order. Not thread-safe; the snapshot it builds is.
+     */
+    public static final class Builder {
+
+        private int size;
+        private long[] ids;
+        private long[] createdAt;
+        private long[] updatedAt;
+        private int[] amounts;
+        private int[] quantities;
+        private boolean[] inStock;
+        private int[] currencies;
+        private int[] categories;
+        private int[] tagStarts;
+        private int[] tags;
+        private int tagCount;
+        private long[] textAddresses;
+        private int[] textLengths;
+        private final List<byte[]> chunks;
+        private final List<String> dictionary;
+        private final Map<String, Integer> codes;
+        // Chunks taken over from the base snapshot are shared and never written to
+        private int writableChunk = -1;
+        private int chunkPosition;
+        // Set when the text still to be added is known, so its chunk is sized to fit it exactly
+        private int exactText;
+
+        private Builder(ProductSnapshot base, int expectedRows) {
+            int capacity = Math.max(expectedRows, 16);
+            ids = new long[capacity];
+            createdAt = new long[capacity];
+            updatedAt = new long[capacity];
+            amounts = new int[capacity];
+            quantities = new int[capacity];
+            inStock = new boolean[capacity];
+            currencies = new int[capacity];
+            categories = new int[capacity];
+            tagStarts = new int[capacity + 1];
+            tags = new int[capacity * 2];
+            textAddresses = new long[capacity];
+            textLengths = new int[capacity * 3];
+            // Keeping the base dictionary keeps its codes valid for copied rows
+            chunks = base != null ? new ArrayList<>(Arrays.asList(base.chunks)) : new ArrayList<>();
+            dictionary = base != null ? new ArrayList<>(Arrays.asList(base.dictionary)) : new ArrayList<>();
+            codes = base != null ? new HashMap<>(base.codes) : new HashMap<>();
+        }
+
+        public Builder add(ProductSummary product, List<String> productTags) {
+            ensureCapacity(size + 1);
+            ids[size] = product.id();
+            createdAt[size] = toMicros(product.createdAt());
+            updatedAt[size] = toMicros(product.updatedAt());
+            amounts[size] = product.amount();
+            quantities[size] = product.quantity();
+            inStock[size] = Boolean.TRUE.equals(product.inStock());
+            currencies[size] = code(product.currency());
+            categories[size] = product.category() != null ? code(product.category()) : NO_CODE;
+
+            int tagTotal = productTags != null ? productTags.size() : 0;
+            ensureTagCapacity(tagCount + tagTotal);
+            for (int i = 0; i < tagTotal; i++) {
+                tags[tagCount++] = code(productTags.get(i));
+            }
+            tagStarts[size + 1] = tagCount;
+
+            byte[] sku = product.sku().getBytes(StandardCharsets.UTF_8);
+            byte[] name = product.name().getBytes(StandardCharsets.UTF_8);
+            byte[] description = product.description() != null
+                    ? product.description().getBytes(StandardCharsets.UTF_8)
+                    : null;
+            int length = sku.length + name.length + (description != null ? description.length : 0);
+            byte[] chunk = reserveText(length);
+            textAddresses[size] = (long) writableChunk << 32 | chunkPosition;
+            System.arraycopy(sku, 0, chunk, chunkPosition, sku.length);
+            System.arraycopy(name, 0, chunk, chunkPosition + sku.length, name.length);
+            if (description != null) {
+                System.arraycopy(description, 0, chunk, chunkPosition + sku.length + name.length, description.length);
+            }
+            chunkPosition += length;
+            textLengths[size * 3] = sku.length;
+            textLengths[size * 3 + 1] = name.length;
+            textLengths[size * 3 + 2] = description != null ? description.length : NO_TEXT;
+            size++;
+            return this;
+        }
+
+        public ProductSnapshot build() {
+            return new ProductSnapshot(this);
+        }
+
+        private void add(Row row) {
+            add(row.product(), row.tags());
+        }
+
+        // Rows [from, to) of the base snapshot, whose dictionary and chunks this builder started from
+        private void copy(ProductSnapshot source, int from, int to) {
+            int count = to - from;
+            if (count <= 0) {
+                return;
+            }
+            ensureCapacity(size + count);
+            System.arraycopy(source.ids, from, ids, size, count);
+            System.arraycopy(source.createdAt, from, createdAt, size, count);
+            System.arraycopy(source.updatedAt, from, updatedAt, size, count);
+            System.arraycopy(source.amounts, from, amounts, size, count);
+            System.arraycopy(source.quantities, from, quantities, size, count);
+            System.arraycopy(source.inStock, from, inStock, size, count);
+            System.arraycopy(source.currencies, from, currencies, size, count);
+            System.arraycopy(source.categories, from, categories, size, count);
+            System.arraycopy(source.textAddresses, from, textAddresses, size, count);
+            System.arraycopy(source.textLengths, from * 3, textLengths, size * 3, count * 3);
+
+            int tagFrom = source.tagStarts[from];
+            int tagTotal = source.tagStarts[to] - tagFrom;
+            ensureTagCapacity(tagCount + tagTotal);
+            System.arraycopy(source.tags, tagFrom, tags, tagCount, tagTotal);
+            int shift = tagCount - tagFrom;
+            for (int i = 1; i <= count; i++) {
+                tagStarts[size + i] = source.tagStarts[from + i] + shift;
+            }
+            tagCount += tagTotal;
+            size += count;
+        }
+
+        private int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                dictionary.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        private byte[] reserveText(int length) {
+            if (writableChunk < 0 || chunkPosition + length > chunks.get(writableChunk).length) {
+                int previous = writableChunk < 0 ? 0 : chunks.get(writableChunk).length;
+                int chunkSize = exactText > 0 ? Math.max(exactText, length)
+                        : Math.max(Math.min(Math.max(previous * 2, MIN_CHUNK_SIZE), MAX_CHUNK_SIZE), length);
+                exactText = Math.max(0, exactText - chunkSize);
+                chunks.add(new byte[chunkSize]);
+                writableChunk = chunks.size() - 1;
+                chunkPosition = 0;
+            }
+            return chunks.get(writableChunk);
+        }
+
+        private void ensureCapacity(int rows) {
+            if (rows <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(rows, ids.length + (ids.length >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            createdAt = Arrays.copyOf(createdAt, capacity);
+            updatedAt = Arrays.copyOf(updatedAt, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            inStock = Arrays.copyOf(inStock, capacity);
+            currencies = Arrays.copyOf(currencies, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            tagStarts = Arrays.copyOf(tagStarts, capacity + 1);
+            textAddresses = Arrays.copyOf(textAddresses, capacity);
+            textLengths = Arrays.copyOf(textLengths, capacity * 3);
+        }
+
+        private void ensureTagCapacity(int count) {
+            if (count > tags.length) {
+                tags = Arrays.copyOf(tags, Math.max(count, tags.length + (tags.length >> 1)));
+            }
+        }
+    }
+}
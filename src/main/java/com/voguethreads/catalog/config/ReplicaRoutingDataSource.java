@@ -0,0 +1,90 @@
+package com.voguethreads.catalog.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Sends connections for read-only transactions to the replica and everything else to the
+ * primary. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager begins the transaction before the read-only flag is bound, so the
+ * physical connection has to be picked on the first statement.
+ *
+ * <p>With a read-your-writes window, a caller whose write committed within the window reads from
+ * the primary, so they see their own change even while the replica lags. Callers are identified
+ * by their authenticated principal; unauthenticated work (reads by anonymous shoppers,
+ * scheduled jobs) is never pinned.
+ *
+ * <p>Loads that fill shared caches run through {@link #onPrimary}. A replica read racing a write
+ * could otherwise return the pre-write row after the write's eviction, and every caller, the
+ * writer included, would be served that row until the entry expires.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow) {
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.recentWriters = readYourWritesWindow.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(readYourWritesWindow)
+                .build();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String caller = recentWriters != null ? currentCaller() : null;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (caller != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                // The window starts once the write is visible on the primary
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recentWriters.put(caller, Boolean.TRUE);
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        if (PRIMARY_READS.get() != null || (caller != null && recentWriters.getIfPresent(caller) != null)) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * Runs {@code work} with its read-only transactions on the primary. The connection is picked
+     * on the first statement, so a transaction already holding a replica connection stays on it.
+     * Without a replica this only runs {@code work}.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        if (PRIMARY_READS.get() != null) {
+            return work.get();
+        }
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_READS.remove();
+        }
+    }
+
+    private static String currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
@@ -1,7 +1,9 @@
 package com.voguethreads.catalog.config;
 
 import com.voguethreads.catalog.security.JwtAuthenticationFilter;
+import com.voguethreads.catalog.web.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -20,6 +22,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -29,13 +32,22 @@ public class SecurityConfig {
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/health", "/actuator/health").permitAll()
+                        // Metrics name internal endpoints and load; only the scraper's token may read them
+                        .requestMatchers("/actuator/prometheus").hasRole("METRICS")
+                        // Stock is taken only by the order service at checkout, never by shoppers
+                        .requestMatchers("/products/reservations", "/products/reservations/**").hasRole("ORDER_SERVICE")
+                        // A full catalog dump is for partner feeds, not anonymous scrapers
+                        .requestMatchers(HttpMethod.GET, "/products/export").hasAnyRole("PARTNER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/products", "/products/**").permitAll()
-                        .requestMatchers(HttpMethod.POST, "/products").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/products", "/products/bulk").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/products/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.PATCH, "/products/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/products/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+        // After JWT parsing, so authenticated callers are limited by subject rather than address
+        rateLimitFilter.ifAvailable(filter -> http.addFilterAfter(filter, JwtAuthenticationFilter.class));
 
         return http.build();
     }
@@ -1,16 +1,54 @@
 package com.voguethreads.catalog.controller;
 
+import com.voguethreads.catalog.dto.BulkImportResponse;
 import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductBatchResponse;
+import com.voguethreads.catalog.dto.ProductChangesResponse;
+import com.voguethreads.catalog.dto.ProductFacetsResponse;
+import com.voguethreads.catalog.dto.ProductPatchRequest;
 import com.voguethreads.catalog.dto.ProductRequest;
 import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.dto.ReservationRequest;
+import com.voguethreads.catalog.dto.ReservationResponse;
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.service.ProductChangeService;
+import com.voguethreads.catalog.service.ProductExportService;
+import com.voguethreads.catalog.service.ProductFacetService;
+import com.voguethreads.catalog.service.ProductFilter;
+import com.voguethreads.catalog.service.ProductIds;
+import com.voguethreads.catalog.service.ProductImportService;
 import com.voguethreads.catalog.service.ProductService;
+import com.voguethreads.catalog.service.ProductSort;
+import com.voguethreads.catalog.service.ProductUpsert;
+import com.voguethreads.catalog.service.ProductVersion;
+import com.voguethreads.catalog.service.TagMatch;
+import com.voguethreads.catalog.web.ProductChangeStream;
+import com.voguethreads.catalog.web.ProductETags;
+import com.voguethreads.catalog.web.SerializedResponseCache;
+import com.voguethreads.catalog.web.SparseFieldsWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/products")
@@ -19,25 +57,234 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
+    private final ProductFacetService productFacetService;
+    private final ProductChangeService productChangeService;
+    private final ProductChangeStream productChangeStream;
+    private final SerializedResponseCache serializedResponseCache;
+    private final SparseFieldsWriter sparseFieldsWriter;
 
     @GetMapping
-    public ResponseEntity<PagedResponse<ProductResponse>> listProducts(
+    public ResponseEntity<?> listProducts(
             @RequestParam(required = false) Integer page,
             @RequestParam(required = false) Integer pageSize,
             @RequestParam(required = false) String query,
-            @RequestParam(required = false) String category
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) String tagMatch,
+            @RequestParam(required = false) Integer minAmount,
+            @RequestParam(required = false) Integer maxAmount,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        log.debug("GET /products - page: {}, pageSize: {}, query: {}, category: {}, tags: {} ({}), amount: {}-{}, " +
+                "inStock: {}, currency: {}, cursor: {}, sort: {}, fields: {}, includeTotal: {}", page, pageSize, query,
+                category, tags, tagMatch, minAmount, maxAmount, inStock, currency, cursor, sort, fields, includeTotal);
+        boolean plain = query == null && tags == null && minAmount == null && maxAmount == null && inStock == null
+                && currency == null && sort == null && fields == null && !includeTotal;
+        // Plain first pages (optionally by category) are the hot listing reads
+        if (serializedResponseCache.isEnabled() && cursor == null && (page == null || page == 1) && plain) {
+            SerializedResponseCache.Body body = serializedResponseCache.firstPage(
+                    new SerializedResponseCache.PageKey(pageSize, category),
+                    () -> productService.listProducts(1, pageSize, ProductFilter.of(null, category), null, null, false));
+            return serializedResponseCache.respond(body, acceptEncoding);
+        }
+        // Presence of the cursor parameter (even empty, for the first page) selects keyset mode
+        ProductFilter filter = ProductFilter.builder()
+                .query(query)
+                .category(category)
+                .tags(tags)
+                .tagMatch(TagMatch.from(tagMatch))
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .inStock(inStock)
+                .currency(currency)
+                .build();
+        PagedResponse<ProductResponse> response;
+        if (cursor != null) {
+            // Cursors encode a (createdAt, id) position
+            if (ProductSort.from(sort) != ProductSort.NEWEST) {
+                throw new InvalidRequestException("Cursor pagination only supports sort=newest");
+            }
+            response = productService.listProductsByCursor(cursor, pageSize, filter, fields);
+        } else if (plain && isAnonymous()) {
+            // Anonymous browsing may be served from the snapshot; signed-in users read their own writes
+            response = productService.browseProducts(page, pageSize, category);
+        } else {
+            response = productService.listProducts(page, pageSize, filter, sort, fields, includeTotal);
+        }
+        // Spring answers If-None-Match with 304 when the weak ETag still matches
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        String eTag = ProductETags.forPage(response);
+        if (eTag != null) {
+            builder.eTag(eTag);
+        }
+        if (fields != null) {
+            // Only a field-selected listing drops its unselected (null) fields from the JSON
+            return builder.contentType(MediaType.APPLICATION_JSON).body(sparseFieldsWriter.write(response));
+        }
+        return builder.body(response);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam List<String> ids) {
+        log.debug("GET /products?ids={}", ids);
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsResponse> getFacets(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(required = false) String tagMatch,
+            @RequestParam(required = false) Integer minAmount,
+            @RequestParam(required = false) Integer maxAmount,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) String currency
     ) {
-        log.debug("GET /products - page: {}, pageSize: {}, query: {}, category: {}",
-                page, pageSize, query, category);
-        PagedResponse<ProductResponse> response = productService.listProducts(page, pageSize, query, category);
+        log.debug("GET /products/facets - query: {}, category: {}, tags: {} ({}), amount: {}-{}, inStock: {}, " +
+                "currency: {}", query, category, tags, tagMatch, minAmount, maxAmount, inStock, currency);
+        // Same filters as the listing, so the counts describe the products being shown
+        return ResponseEntity.ok(productFacetService.getFacets(ProductFilter.builder()
+                .query(query)
+                .category(category)
+                .tags(tags)
+                .tagMatch(TagMatch.from(tagMatch))
+                .minAmount(minAmount)
+                .maxAmount(maxAmount)
+                .inStock(inStock)
+                .currency(currency)
+                .build()));
+    }
+
+    /**
+     * Streams the whole catalog; gzip-compressed when the client accepts it. Once the first
+     * bytes are out an error can only abort the response, so clients should treat a body
+     * that ends early as failed. The export slot is claimed before any header is set, so a
+     * busy service still answers with a plain JSON error.
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('PARTNER', 'ADMIN')")
+    public void exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response
+    ) throws IOException {
+        log.debug("GET /products/export - format: {}, acceptEncoding: {}", format, acceptEncoding);
+        ProductExportService.Format exportFormat = switch (format.toLowerCase()) {
+            case "ndjson" -> ProductExportService.Format.NDJSON;
+            case "csv" -> ProductExportService.Format.CSV;
+            default -> throw new InvalidRequestException("Unsupported export format: " + format);
+        };
+        boolean gzip = SerializedResponseCache.acceptsGzip(acceptEncoding);
+
+        try (ProductExportService.Slot slot = productExportService.acquireSlot()) {
+            writeExport(exportFormat, format, gzip, response);
+        }
+    }
+
+    private void writeExport(
+            ProductExportService.Format exportFormat, String format, boolean gzip, HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(exportFormat == ProductExportService.Format.CSV ? "text/csv" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"products." + format.toLowerCase() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream output = response.getOutputStream();
+        if (gzip) {
+            try (GZIPOutputStream compressed = new GZIPOutputStream(output, 8192)) {
+                productExportService.export(exportFormat, compressed);
+            }
+        } else {
+            productExportService.export(exportFormat, output);
+        }
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangesResponse> listChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit
+    ) {
+        log.debug("GET /products/changes - since: {}, limit: {}", since, limit);
+        return ResponseEntity.ok(productChangeService.listChanges(since, limit));
+    }
+
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        log.debug("GET /products/changes/stream - since: {}, lastEventId: {}", since, lastEventId);
+        // EventSource reconnects send the id of the last event they saw
+        long position = lastEventId != null ? lastEventId : (since != null ? since : 0);
+        return productChangeStream.subscribe(Math.max(position, 0));
+    }
+
+    @PostMapping("/reservations")
+    @PreAuthorize("hasRole('ORDER_SERVICE')")
+    public ResponseEntity<ReservationResponse> reserveInventory(@Valid @RequestBody ReservationRequest request) {
+        log.debug("POST /products/reservations - request: {}", request);
+        ReservationResponse response = productService.reserveInventory(request);
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/reservations/{reservationId}/confirm")
+    @PreAuthorize("hasRole('ORDER_SERVICE')")
+    public ResponseEntity<Void> confirmReservation(@PathVariable String reservationId) {
+        log.debug("POST /products/reservations/{}/confirm", reservationId);
+        productService.confirmReservation(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @PreAuthorize("hasRole('ORDER_SERVICE')")
+    public ResponseEntity<Void> releaseReservation(@PathVariable String reservationId) {
+        log.debug("DELETE /products/reservations/{}", reservationId);
+        productService.releaseReservation(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProduct(@PathVariable String id) {
+    public ResponseEntity<?> getProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest
+    ) {
         log.debug("GET /products/{}", id);
+        if (serializedResponseCache.isEnabled()) {
+            Long productId = ProductIds.parse(id);
+            SerializedResponseCache.Body body = serializedResponseCache.product(
+                    productId, () -> productService.getProductById(productId));
+            return serializedResponseCache.respond(body, acceptEncoding);
+        }
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            ProductVersion version = productService.getProductVersion(id);
+            String eTag = ProductETags.forProduct(version.id(), version.version());
+            if (webRequest.checkNotModified(eTag, version.updatedAt().toEpochMilli())) {
+                log.debug("GET /products/{} - not modified", id);
+                return null;
+            }
+        }
+
         ProductResponse response = productService.getProductByIdString(id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(ProductETags.forProduct(response.getId(), response.getVersion()))
+                .lastModified(response.getUpdatedAt())
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     @PostMapping
@@ -48,15 +295,62 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportResponse> bulkImport(HttpServletRequest request) throws IOException {
+        log.debug("POST /products/bulk - contentType: {}", request.getContentType());
+        ProductImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        BulkImportResponse response = productImportService.importProducts(request.getInputStream(), format);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * With {@code If-Match}, the update applies only if the product still has that ETag;
+     * otherwise it fails with 412 and nothing is written.
+     */
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ProductResponse> updateProduct(
             @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ProductRequest request
     ) {
-        log.debug("PUT /products/{} - request: {}", id, request);
-        ProductResponse response = productService.updateProductByIdString(id, request);
-        return ResponseEntity.ok(response);
+        log.debug("PUT /products/{} - If-Match: {}, request: {}", id, ifMatch, request);
+        ProductResponse response = productService.updateProductByIdString(id, request, ifMatch(ifMatch));
+        return withETag(response);
+    }
+
+    /**
+     * Idempotent create-or-replace keyed by SKU: 201 when the product was created, 200 when an
+     * existing one was overwritten. Safe to retry, unlike {@code POST /products}.
+     */
+    @PutMapping("/sku/{sku}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductResponse> upsertProduct(
+            @PathVariable String sku,
+            @Valid @RequestBody ProductRequest request
+    ) {
+        log.debug("PUT /products/sku/{} - request: {}", sku, request);
+        ProductUpsert upsert = productService.upsertProductBySku(sku, request);
+        ProductResponse response = upsert.product();
+        return ResponseEntity.status(upsert.created() ? HttpStatus.CREATED : HttpStatus.OK)
+                .eTag(ProductETags.forProduct(response.getId(), response.getVersion()))
+                .body(response);
+    }
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductResponse> patchProduct(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody ProductPatchRequest request
+    ) {
+        log.debug("PATCH /products/{} - If-Match: {}, request: {}", id, ifMatch, request);
+        ProductResponse response = productService.patchProductByIdString(id, request, ifMatch(ifMatch));
+        return withETag(response);
     }
 
     @DeleteMapping("/{id}")
@@ -66,5 +360,21 @@ public class ProductController {
         productService.deleteProductByIdString(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private static boolean isAnonymous() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated();
+    }
+
+    private static Predicate<ProductVersion> ifMatch(String ifMatch) {
+        return ifMatch == null ? null : version -> ProductETags.matches(ifMatch, version.id(), version.version());
+    }
+
+    // The new ETag lets the client chain further conditional updates without another GET
+    private static ResponseEntity<ProductResponse> withETag(ProductResponse response) {
+        return ResponseEntity.ok()
+                .eTag(ProductETags.forProduct(response.getId(), response.getVersion()))
+                .body(response);
+    }
+}
@@ -0,0 +1,30 @@
+package com.voguethreads.catalog.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResponse {
+
+    private Long received;
+    private Long imported;
+    private Long failed;
+    private Long durationMs;
+    private Double rowsPerSecond;
+    private List<RowError> errors;
+    private Boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        private Long row;
+        private String sku;
+        private String message;
+    }
+}
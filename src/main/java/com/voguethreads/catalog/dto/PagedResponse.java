@@ -1,5 +1,6 @@
 package com.voguethreads.catalog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
 import java.util.List;
@@ -8,6 +9,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
 
     private List<T> items;
@@ -15,5 +17,9 @@ public class PagedResponse<T> {
     private Integer pageSize;
     private Long totalItems;
     private Integer totalPages;
+    // False when the totals are a recently cached count rather than counted for this page
+    private Boolean totalExact;
+    private Boolean hasNext;
+    private String nextCursor;
 }
 
@@ -0,0 +1,27 @@
+package com.voguethreads.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBatchResponse {
+
+    // One entry per requested id, in request order
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Item {
+        private String id;          // as requested
+        private ProductResponse product;
+        private String error;       // set instead of product, e.g. PRODUCT_NOT_FOUND
+    }
+}
@@ -0,0 +1,30 @@
+package com.voguethreads.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.voguethreads.catalog.model.ProductChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductChangeResponse {
+
+    private Long position;
+    private String productId;
+    private ProductChangeType type;
+    private Instant occurredAt;
+
+    // Stored snapshot JSON, written through as-is
+    @JsonRawValue
+    private String product;
+
+    private Integer quantityDelta;
+}
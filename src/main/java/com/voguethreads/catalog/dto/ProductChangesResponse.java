@@ -0,0 +1,19 @@
+package com.voguethreads.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangesResponse {
+
+    private List<ProductChangeResponse> changes;
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -0,0 +1,47 @@
+package com.voguethreads.catalog.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductFacetsResponse {
+
+    private long total;
+    private List<FacetValue> categories;
+    private List<FacetValue> tags;
+    private List<PriceBand> priceBands;
+    private StockCounts inStock;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class FacetValue {
+        private String value;
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PriceBand {
+        private String currency;    // bands are counted separately for each currency
+        private Integer min;        // minor units, inclusive; null for the first band
+        private Integer max;        // minor units, exclusive; null for the last band
+        private long count;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class StockCounts {
+        private long inStock;
+        private long outOfStock;
+    }
+}
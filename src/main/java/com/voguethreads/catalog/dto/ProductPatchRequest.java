@@ -0,0 +1,42 @@
+package com.voguethreads.catalog.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Partial product update: fields left out (or null) keep their current value.
+ * An empty {@code tags} list clears the tags.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductPatchRequest {
+
+    @Pattern(regexp = ".*\\S.*", message = "SKU must not be blank")
+    @Size(max = 50, message = "SKU must not exceed 50 characters")
+    private String sku;
+
+    @Pattern(regexp = ".*\\S.*", message = "Name must not be blank")
+    @Size(max = 255, message = "Name must not exceed 255 characters")
+    private String name;
+
+    @Size(max = 5000, message = "Description must not exceed 5000 characters")
+    private String description;
+
+    @Size(min = 3, max = 3, message = "Currency must be 3 characters (ISO 4217)")
+    private String currency;
+
+    @Min(value = 0, message = "Amount must be non-negative")
+    private Integer amount;
+
+    @Min(value = 0, message = "Quantity must be non-negative")
+    private Integer quantity;
+
+    @Size(max = 100, message = "Category must not exceed 100 characters")
+    private String category;
+
+    private List<String> tags;
+}
@@ -1,5 +1,6 @@
 package com.voguethreads.catalog.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 import java.time.Instant;
@@ -21,6 +22,9 @@ public class ProductResponse {
     private List<String> tags;
     private Instant createdAt;
     private Instant updatedAt;
+    // Optimistic-lock version behind the ETag; not part of the JSON body
+    @JsonIgnore
+    private Long version;
 
     @Data
     @NoArgsConstructor
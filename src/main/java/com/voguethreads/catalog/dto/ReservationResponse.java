@@ -0,0 +1,27 @@
+package com.voguethreads.catalog.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReservationResponse {
+
+    private String reservationId;
+    // Null when reservations are kept until released
+    private Instant expiresAt;
+    private List<ReservedItem> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ReservedItem {
+        private String productId;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,19 @@
+package com.voguethreads.catalog.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * A bounded resource is fully in use; the client should retry after {@code retryAfter}.
+ */
+@Getter
+public class CapacityExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public CapacityExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -1,8 +1,28 @@
 package com.voguethreads.catalog.exception;
 
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
 public class DuplicateSkuException extends RuntimeException {
+
+    /** Unique constraint on {@code products.sku}: PostgreSQL's name from V1, mirrored on the entity. */
+    public static final String SKU_CONSTRAINT = "products_sku_key";
+
     public DuplicateSkuException(String message) {
         super(message);
     }
-}
 
+    /**
+     * Whether {@code ex} was caused by a write violating the SKU unique constraint.
+     */
+    public static boolean isSkuViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(SKU_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
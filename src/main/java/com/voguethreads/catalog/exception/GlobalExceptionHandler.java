@@ -1,7 +1,12 @@
 package com.voguethreads.catalog.exception;
 
 import com.voguethreads.catalog.dto.ErrorResponse;
+import com.voguethreads.catalog.metrics.CatalogMetrics;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -16,13 +21,17 @@ import java.util.Map;
 import java.util.UUID;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private final CatalogMetrics catalogMetrics;
+
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleProductNotFound(ProductNotFoundException ex) {
         String traceId = UUID.randomUUID().toString();
         log.error("Product not found - traceId: {}, message: {}", traceId, ex.getMessage());
+        catalogMetrics.notFound();
 
         ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
                 .code("PRODUCT_NOT_FOUND")
@@ -39,6 +48,7 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleDuplicateSku(DuplicateSkuException ex) {
         String traceId = UUID.randomUUID().toString();
         log.error("Duplicate SKU - traceId: {}, message: {}", traceId, ex.getMessage());
+        catalogMetrics.duplicateSku();
 
         ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
                 .code("DUPLICATE_SKU")
@@ -51,6 +61,133 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.builder().error(errorDetail).build());
     }
 
+    // Writes that reach the unique index without going through ProductService's translation
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (DuplicateSkuException.isSkuViolation(ex)) {
+            return handleDuplicateSku(new DuplicateSkuException("A product with this SKU already exists"));
+        }
+        return handleGeneralException(ex);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStock(InsufficientStockException ex) {
+        String traceId = UUID.randomUUID().toString();
+        log.error("Insufficient stock - traceId: {}, message: {}", traceId, ex.getMessage());
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("productId", ex.getProductId());
+        details.put("requested", ex.getRequested());
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("INSUFFICIENT_STOCK")
+                .message(ex.getMessage())
+                .details(details)
+                .traceId(traceId)
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.builder().error(errorDetail).build());
+    }
+
+    @ExceptionHandler(ReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleReservationNotFound(ReservationNotFoundException ex) {
+        String traceId = UUID.randomUUID().toString();
+        log.error("Reservation not found - traceId: {}, message: {}", traceId, ex.getMessage());
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("RESERVATION_NOT_FOUND")
+                .message(ex.getMessage())
+                .traceId(traceId)
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ErrorResponse.builder().error(errorDetail).build());
+    }
+
+    @ExceptionHandler(ReservationStateException.class)
+    public ResponseEntity<ErrorResponse> handleReservationState(ReservationStateException ex) {
+        String traceId = UUID.randomUUID().toString();
+        log.error("Reservation closed - traceId: {}, message: {}", traceId, ex.getMessage());
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("RESERVATION_CLOSED")
+                .message(ex.getMessage())
+                .traceId(traceId)
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.builder().error(errorDetail).build());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorResponse> handlePreconditionFailed(PreconditionFailedException ex) {
+        String traceId = UUID.randomUUID().toString();
+        log.error("Precondition failed - traceId: {}, message: {}", traceId, ex.getMessage());
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("PRECONDITION_FAILED")
+                .message(ex.getMessage())
+                .traceId(traceId)
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ErrorResponse.builder().error(errorDetail).build());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        String traceId = UUID.randomUUID().toString();
+        log.error("Concurrent modification - traceId: {}, message: {}", traceId, ex.getMessage());
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("CONCURRENT_MODIFICATION")
+                .message("The product was modified by another request, retry with its current state")
+                .traceId(traceId)
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ErrorResponse.builder().error(errorDetail).build());
+    }
+
+    @ExceptionHandler(CapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleCapacityExceeded(CapacityExceededException ex) {
+        String traceId = UUID.randomUUID().toString();
+        log.warn("Capacity exceeded - traceId: {}, message: {}", traceId, ex.getMessage());
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("SERVICE_UNAVAILABLE")
+                .message(ex.getMessage())
+                .traceId(traceId)
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+                .body(ErrorResponse.builder().error(errorDetail).build());
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(InvalidRequestException ex) {
+        String traceId = UUID.randomUUID().toString();
+        log.error("Invalid request - traceId: {}, message: {}", traceId, ex.getMessage());
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("INVALID_REQUEST")
+                .message(ex.getMessage())
+                .traceId(traceId)
+                .build();
+
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.builder().error(errorDetail).build());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         String traceId = UUID.randomUUID().toString();
@@ -0,0 +1,16 @@
+package com.voguethreads.catalog.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final String productId;
+    private final Integer requested;
+
+    public InsufficientStockException(String productId, Integer requested) {
+        super("Insufficient stock for product " + productId + " (requested: " + requested + ")");
+        this.productId = productId;
+        this.requested = requested;
+    }
+}
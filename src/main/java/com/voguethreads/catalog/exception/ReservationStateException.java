@@ -0,0 +1,11 @@
+package com.voguethreads.catalog.exception;
+
+/**
+ * The reservation has already been closed the other way: a confirmed reservation cannot be
+ * released, and a released or expired one cannot be confirmed.
+ */
+public class ReservationStateException extends RuntimeException {
+    public ReservationStateException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,17 @@
 package com.voguethreads.catalog.mapper;
 
+import com.voguethreads.catalog.dto.ProductChangeResponse;
+import com.voguethreads.catalog.dto.ProductPatchRequest;
 import com.voguethreads.catalog.dto.ProductRequest;
 import com.voguethreads.catalog.dto.ProductResponse;
 import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.model.ProductChangeEvent;
+import com.voguethreads.catalog.repository.ProductSummary;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class ProductMapper {
 
@@ -31,7 +38,43 @@ public class ProductMapper {
         product.setQuantity(request.getQuantity());
         product.setInStock(request.getQuantity() > 0);
         product.setCategory(request.getCategory());
-        product.setTags(request.getTags());
+        replaceTags(product, request.getTags());
+    }
+
+    public void applyPatch(Product product, ProductPatchRequest request) {
+        if (request.getSku() != null) {
+            product.setSku(request.getSku());
+        }
+        if (request.getName() != null) {
+            product.setName(request.getName());
+        }
+        if (request.getDescription() != null) {
+            product.setDescription(request.getDescription());
+        }
+        if (request.getCurrency() != null) {
+            product.setCurrency(request.getCurrency());
+        }
+        if (request.getAmount() != null) {
+            product.setAmount(request.getAmount());
+        }
+        if (request.getQuantity() != null) {
+            product.setQuantity(request.getQuantity());
+            product.setInStock(request.getQuantity() > 0);
+        }
+        if (request.getCategory() != null) {
+            product.setCategory(request.getCategory());
+        }
+        if (request.getTags() != null) {
+            replaceTags(product, request.getTags());
+        }
+    }
+
+    // A new collection makes Hibernate delete and re-insert every tag row, so keep the loaded one when unchanged
+    private static void replaceTags(Product product, List<String> tags) {
+        List<String> current = product.getTags() != null ? new ArrayList<>(product.getTags()) : List.of();
+        if (!current.equals(tags != null ? tags : List.of())) {
+            product.setTags(tags);
+        }
     }
 
     public ProductResponse toResponse(Product product) {
@@ -49,10 +92,44 @@ public class ProductMapper {
                         .quantity(product.getQuantity())
                         .build())
                 .category(product.getCategory())
-                .tags(product.getTags())
+                // Copy so tags load inside the caller's transaction and the DTO holds no lazy proxy
+                .tags(product.getTags() != null ? new ArrayList<>(product.getTags()) : null)
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
-}
 
+    public ProductResponse toResponse(ProductSummary summary, List<String> tags) {
+        return ProductResponse.builder()
+                .id("prod_" + summary.id())
+                .sku(summary.sku())
+                .name(summary.name())
+                .description(summary.description())
+                .price(ProductResponse.PriceInfo.builder()
+                        .currency(summary.currency())
+                        .amount(summary.amount())
+                        .build())
+                .inventory(ProductResponse.InventoryInfo.builder()
+                        .inStock(summary.inStock())
+                        .quantity(summary.quantity())
+                        .build())
+                .category(summary.category())
+                .tags(tags)
+                .createdAt(summary.createdAt())
+                .updatedAt(summary.updatedAt())
+                .version(summary.version())
+                .build();
+    }
+
+    public ProductChangeResponse toChangeResponse(ProductChangeEvent event) {
+        return ProductChangeResponse.builder()
+                .position(event.getPosition())
+                .productId("prod_" + event.getProductId())
+                .type(event.getType())
+                .occurredAt(event.getCreatedAt())
+                .product(event.getPayload())
+                .quantityDelta(event.getQuantityDelta())
+                .build();
+    }
+}
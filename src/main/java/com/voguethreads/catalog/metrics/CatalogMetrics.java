@@ -0,0 +1,108 @@
+package com.voguethreads.catalog.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers and counters for the catalog hot paths.
+ *
+ * <p>Every meter is registered once up front and recorded from a {@code System.nanoTime()}
+ * start, so a request adds no builder, tag or lambda allocations.
+ */
+@Component
+public class CatalogMetrics {
+
+    private final Timer offsetSearch;
+    private final Timer cursorSearch;
+    private final Timer snapshotPage;
+    private final Timer findById;
+    private final Timer findByIds;
+    private final Timer facets;
+    private final Timer count;
+    private final Timer decrementApplied;
+    private final Timer decrementRejected;
+    private final Counter duplicateSku;
+    private final Counter notFound;
+
+    public CatalogMetrics(MeterRegistry meterRegistry) {
+        this.offsetSearch = searchTimer(meterRegistry, "offset");
+        this.cursorSearch = searchTimer(meterRegistry, "cursor");
+        this.snapshotPage = Timer.builder("catalog.product.snapshot-page")
+                .description("Browse pages served from the in-memory snapshot")
+                .register(meterRegistry);
+        this.findById = Timer.builder("catalog.product.find-by-id")
+                .description("Database lookups of a single product (cache misses)")
+                .register(meterRegistry);
+        this.findByIds = Timer.builder("catalog.product.find-by-ids")
+                .description("Database lookups for batch gets (products missing from the cache)")
+                .register(meterRegistry);
+        this.facets = Timer.builder("catalog.product.facets")
+                .description("Facet count queries (cache misses)")
+                .register(meterRegistry);
+        this.count = Timer.builder("catalog.product.count")
+                .description("Listing total counts for includeTotal=true")
+                .register(meterRegistry);
+        this.decrementApplied = decrementTimer(meterRegistry, "applied");
+        this.decrementRejected = decrementTimer(meterRegistry, "insufficient");
+        this.duplicateSku = Counter.builder("catalog.product.duplicate-sku")
+                .description("Writes rejected because the SKU already exists")
+                .register(meterRegistry);
+        this.notFound = Counter.builder("catalog.product.not-found")
+                .description("Requests for products that do not exist")
+                .register(meterRegistry);
+    }
+
+    public void recordSearch(boolean cursor, long startNanos) {
+        (cursor ? cursorSearch : offsetSearch).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSnapshotPage(long startNanos) {
+        snapshotPage.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFindById(long startNanos) {
+        findById.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFindByIds(long startNanos) {
+        findByIds.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFacets(long startNanos) {
+        facets.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCount(long startNanos) {
+        count.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDecrement(boolean applied, long startNanos) {
+        (applied ? decrementApplied : decrementRejected).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void duplicateSku() {
+        duplicateSku.increment();
+    }
+
+    public void notFound() {
+        notFound.increment();
+    }
+
+    private static Timer searchTimer(MeterRegistry meterRegistry, String pagination) {
+        return Timer.builder("catalog.product.search")
+                .description("Product listing and search queries")
+                .tag("pagination", pagination)
+                .register(meterRegistry);
+    }
+
+    private static Timer decrementTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("catalog.inventory.decrement")
+                .description("Conditional inventory decrement statements")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
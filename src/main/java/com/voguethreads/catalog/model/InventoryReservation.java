@@ -0,0 +1,47 @@
+package com.voguethreads.catalog.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Stock taken for one checkout. A reservation is {@code HELD} until the order service confirms
+ * it or releases it; releasing returns the stock. A held reservation past {@code expiresAt} is
+ * released by the expiry job.
+ */
+@Entity
+@Table(name = "inventory_reservations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_reservations_id_seq")
+    @SequenceGenerator(name = "inventory_reservations_id_seq", sequenceName = "inventory_reservations_id_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ReservationStatus status;
+
+    // Product id to reserved quantity
+    @ElementCollection
+    @CollectionTable(name = "inventory_reservation_items", joinColumns = @JoinColumn(name = "reservation_id"))
+    @MapKeyColumn(name = "product_id")
+    @Column(name = "quantity", nullable = false)
+    private Map<Long, Integer> items;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // Null when reservations are kept until released
+    private Instant expiresAt;
+}
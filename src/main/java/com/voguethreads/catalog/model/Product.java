@@ -2,14 +2,20 @@ package com.voguethreads.catalog.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.util.List;
 
+// UPDATEs list only the changed columns, so a PATCH of the name does not rewrite the description
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+        uniqueConstraints = @UniqueConstraint(name = "products_sku_key", columnNames = "sku"))
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,11 +23,13 @@ import java.util.List;
 @Builder
 public class Product {
 
+    // Pooled sequence (instead of IDENTITY) so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_id_seq")
+    @SequenceGenerator(name = "products_id_seq", sequenceName = "products_id_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false, length = 50)
+    @Column(nullable = false, length = 50)
     private String sku;
 
     @Column(nullable = false, length = 255)
@@ -45,7 +53,9 @@ public class Product {
     @Column(length = 100)
     private String category;
 
+    // Tags for a whole page load in one IN query instead of one query per product
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "tag")
     private List<String> tags;
@@ -58,6 +68,12 @@ public class Product {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // Concurrent edits fail with a version conflict instead of overwriting each other
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     @PreUpdate
     private void updateInStock() {
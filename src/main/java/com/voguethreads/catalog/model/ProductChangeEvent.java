@@ -0,0 +1,49 @@
+package com.voguethreads.catalog.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Outbox row for a product change. {@code position} stays null until the relay publishes
+ * the event and is the cursor consumers of the change feed resume from.
+ */
+@Entity
+@Table(name = "product_change_events")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangeEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_change_events_id_seq")
+    @SequenceGenerator(name = "product_change_events_id_seq", sequenceName = "product_change_events_id_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 32)
+    private ProductChangeType type;
+
+    // Product snapshot as JSON, null for deletes and inventory changes
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    private Integer quantityDelta;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "feed_position", unique = true)
+    private Long position;
+
+    private Instant publishedAt;
+}
@@ -0,0 +1,8 @@
+package com.voguethreads.catalog.model;
+
+public enum ProductChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    INVENTORY_CHANGED
+}
@@ -0,0 +1,43 @@
+package com.voguethreads.catalog.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.io.Serializable;
+
+/**
+ * Read-only mapping of the {@code product_tags} collection table, so listing queries can filter
+ * on tags in a subquery without joining back to {@code products}. Rows are written through
+ * {@link Product#getTags()}.
+ *
+ * <p>Mapped as a subselect so schema generation leaves the table to the collection mapping;
+ * the table has no key of its own, and the database inlines the subselect.
+ */
+@Entity
+@Immutable
+@Subselect("SELECT product_id, tag FROM product_tags")
+@Synchronize("product_tags")
+@IdClass(ProductTag.Key.class)
+@Getter
+@NoArgsConstructor
+public class ProductTag {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "tag")
+    private String tag;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private String tag;
+    }
+}
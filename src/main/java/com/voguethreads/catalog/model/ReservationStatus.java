@@ -0,0 +1,7 @@
+package com.voguethreads.catalog.model;
+
+public enum ReservationStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED
+}
@@ -0,0 +1,56 @@
+package com.voguethreads.catalog.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.model.ProductChangeEvent;
+import com.voguethreads.catalog.model.ProductChangeType;
+import com.voguethreads.catalog.repository.ProductChangeEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes product change events to the outbox table. Every method joins the caller's
+ * transaction and fails without one, so an event is committed if and only if the change is.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class ProductOutbox {
+
+    private final ProductChangeEventRepository eventRepository;
+    private final ObjectMapper objectMapper;
+
+    public void productChanged(ProductChangeType type, Long productId, ProductResponse snapshot) {
+        eventRepository.save(ProductChangeEvent.builder()
+                .productId(productId)
+                .type(type)
+                .payload(toJson(snapshot))
+                .build());
+    }
+
+    public void productDeleted(Long productId) {
+        eventRepository.save(ProductChangeEvent.builder()
+                .productId(productId)
+                .type(ProductChangeType.DELETED)
+                .build());
+    }
+
+    public void inventoryChanged(Long productId, int quantityDelta) {
+        eventRepository.save(ProductChangeEvent.builder()
+                .productId(productId)
+                .type(ProductChangeType.INVENTORY_CHANGED)
+                .quantityDelta(quantityDelta)
+                .build());
+    }
+
+    private String toJson(ProductResponse snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize product snapshot " + snapshot.getId(), e);
+        }
+    }
+}
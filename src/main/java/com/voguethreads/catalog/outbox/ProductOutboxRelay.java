@@ -0,0 +1,90 @@
+package com.voguethreads.catalog.outbox;
+
+import com.voguethreads.catalog.model.ProductChangeEvent;
+import com.voguethreads.catalog.repository.ProductChangeEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Publishes outbox events to the change feed in batches.
+ *
+ * <p>Publishing assigns each event the next feed position. Positions are handed out at publish
+ * time rather than taken from the outbox id, so an event whose transaction committed late still
+ * lands after everything consumers have already read. The relay is meant to run on one instance
+ * at a time; the row locks on the batch keep a second one from publishing the same events twice.
+ */
+@Component
+@Slf4j
+public class ProductOutboxRelay {
+
+    private final ProductChangeEventRepository eventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+
+    public ProductOutboxRelay(
+            ProductChangeEventRepository eventRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.retention:7d}") Duration retention
+    ) {
+        this.eventRepository = eventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Publishes pending events until the outbox is drained.
+     *
+     * @return number of events published
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public int relay() {
+        int total = 0;
+        int published;
+        do {
+            published = transactionTemplate.execute(status -> publishBatch());
+            total += published;
+        } while (published == batchSize);
+
+        if (total > 0) {
+            log.debug("Published {} product change events", total);
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public int purge() {
+        Instant cutoff = Instant.now().minus(retention);
+        int deleted = transactionTemplate.execute(status -> eventRepository.deletePublishedBefore(cutoff));
+        if (deleted > 0) {
+            log.info("Purged {} product change events published before {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+
+    private int publishBatch() {
+        List<ProductChangeEvent> batch = eventRepository.findUnpublished(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        Long maxPosition = eventRepository.findMaxPosition();
+        long position = maxPosition == null ? 0 : maxPosition;
+        Instant now = Instant.now();
+        for (ProductChangeEvent event : batch) {
+            event.setPosition(++position);
+            event.setPublishedAt(now);
+        }
+        return batch.size();
+    }
+}
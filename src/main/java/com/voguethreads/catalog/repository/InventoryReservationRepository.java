@@ -0,0 +1,39 @@
+package com.voguethreads.catalog.repository;
+
+import com.voguethreads.catalog.model.InventoryReservation;
+import com.voguethreads.catalog.model.ReservationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    /**
+     * Moves the reservation from {@code from} to {@code to}. Returns 0 when it is not in
+     * {@code from}, so a release, a confirm and the expiry job racing on the same reservation
+     * cannot both win it.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE InventoryReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int transition(
+        @Param("id") Long id,
+        @Param("from") ReservationStatus from,
+        @Param("to") ReservationStatus to
+    );
+
+    @Query("SELECT r.status FROM InventoryReservation r WHERE r.id = :id")
+    Optional<ReservationStatus> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT r.id FROM InventoryReservation r " +
+           "WHERE r.status = com.voguethreads.catalog.model.ReservationStatus.HELD AND r.expiresAt <= :now " +
+           "ORDER BY r.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Limit limit);
+}
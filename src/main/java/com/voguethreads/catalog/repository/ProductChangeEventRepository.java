@@ -0,0 +1,32 @@
+package com.voguethreads.catalog.repository;
+
+import com.voguethreads.catalog.model.ProductChangeEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ProductChangeEventRepository extends JpaRepository<ProductChangeEvent, Long> {
+
+    // Row locks keep a second relay instance from publishing the same events
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM ProductChangeEvent e WHERE e.position IS NULL ORDER BY e.id")
+    List<ProductChangeEvent> findUnpublished(Limit limit);
+
+    @Query("SELECT MAX(e.position) FROM ProductChangeEvent e")
+    Long findMaxPosition();
+
+    List<ProductChangeEvent> findByPositionGreaterThanOrderByPositionAsc(long position, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ProductChangeEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,144 @@
+package com.voguethreads.catalog.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Facet counts for a product search in one statement.
+ *
+ * <p>The rows matching the search, tags and currency are selected once into a CTE (PostgreSQL
+ * materializes a CTE that is referenced more than once) and every facet is grouped from it, so
+ * those filters run a single time. Each facet then applies the category, price and stock
+ * filters except its own, so the sidebar can still offer the other values of the dimension
+ * being filtered. Price bands are counted per currency, since minor units of different
+ * currencies cannot share a band.
+ */
+@Repository
+public class ProductFacetRepository {
+
+    public enum Facet { CATEGORY, TAG, PRICE_BAND, IN_STOCK }
+
+    /**
+     * One facet bucket. {@code value} is the category, tag or in-stock flag; for price bands
+     * it is the band index, and {@code currency} the currency it is counted in.
+     */
+    public record FacetCount(Facet facet, String value, String currency, long count) {
+    }
+
+    /**
+     * Listing filters the counts are restricted to; a null value or empty tag list is no filter.
+     *
+     * @param requiredTags distinct tags a product needs to match, as in the listing
+     */
+    public record Criteria(
+            String query,
+            boolean fullText,
+            String category,
+            Collection<String> tags,
+            int requiredTags,
+            Integer minAmount,
+            Integer maxAmount,
+            Boolean inStock,
+            String currency
+    ) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public ProductFacetRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param priceBands ascending upper bounds (exclusive) of every band but the last
+     * @param maxValues  most frequent categories and tags returned
+     */
+    public List<FacetCount> countFacets(Criteria criteria, List<Integer> priceBands, int maxValues) {
+        MapSqlParameterSource params = new MapSqlParameterSource("maxValues", maxValues);
+        List<String> matched = new ArrayList<>();
+        if (criteria.query() != null) {
+            matched.add(criteria.fullText()
+                    ? "p.search_vector @@ websearch_to_tsquery('english', :query)"
+                    : "(LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                      "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
+                      "OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :query, '%')))");
+            params.addValue("query", criteria.query());
+        }
+        if (!criteria.tags().isEmpty()) {
+            matched.add("p.id IN (SELECT t.product_id FROM product_tags t WHERE t.tag IN (:tags) " +
+                    "GROUP BY t.product_id HAVING COUNT(DISTINCT t.tag) >= :requiredTags)");
+            params.addValue("tags", criteria.tags()).addValue("requiredTags", criteria.requiredTags());
+        }
+        if (criteria.currency() != null) {
+            matched.add("p.currency = :currency");
+            params.addValue("currency", criteria.currency());
+        }
+
+        // Per-facet conditions on the matched rows; each facet leaves out its own dimension
+        List<String> category = new ArrayList<>();
+        if (criteria.category() != null) {
+            category.add("m.category = :category");
+            params.addValue("category", criteria.category());
+        }
+        List<String> price = new ArrayList<>();
+        if (criteria.minAmount() != null) {
+            price.add("m.amount >= :minAmount");
+            params.addValue("minAmount", criteria.minAmount());
+        }
+        if (criteria.maxAmount() != null) {
+            price.add("m.amount <= :maxAmount");
+            params.addValue("maxAmount", criteria.maxAmount());
+        }
+        List<String> stock = new ArrayList<>();
+        if (criteria.inStock() != null) {
+            stock.add("m.in_stock = :inStock");
+            params.addValue("inStock", criteria.inStock());
+        }
+
+        // Parenthesized branches rather than derived tables, so each can carry its own LIMIT
+        String sql = "WITH matched AS (SELECT p.id, p.category, p.currency, p.amount, p.in_stock, " +
+                priceBand(priceBands) + " AS price_band FROM products p" + where(matched) + ") " +
+                "(SELECT 'CATEGORY' AS facet, m.category AS facet_value, " +
+                "CAST(NULL AS VARCHAR(3)) AS currency, COUNT(*) AS cnt FROM matched m" +
+                where(List.of("m.category IS NOT NULL"), price, stock) +
+                " GROUP BY m.category ORDER BY cnt DESC, facet_value LIMIT :maxValues) " +
+                "UNION ALL (SELECT 'TAG', t.tag, CAST(NULL AS VARCHAR(3)), COUNT(*) AS cnt " +
+                "FROM matched m JOIN product_tags t ON t.product_id = m.id" +
+                where(List.of("t.tag IS NOT NULL"), category, price, stock) +
+                " GROUP BY t.tag ORDER BY cnt DESC, t.tag LIMIT :maxValues) " +
+                "UNION ALL (SELECT 'PRICE_BAND', CAST(m.price_band AS VARCHAR(10)), m.currency, COUNT(*) " +
+                "FROM matched m" + where(category, stock) + " GROUP BY m.currency, m.price_band) " +
+                "UNION ALL (SELECT 'IN_STOCK', CASE WHEN m.in_stock THEN 'true' ELSE 'false' END, " +
+                "CAST(NULL AS VARCHAR(3)), COUNT(*) FROM matched m" + where(category, price) +
+                " GROUP BY m.in_stock)";
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new FacetCount(
+                Facet.valueOf(rs.getString(1)), rs.getString(2), rs.getString(3), rs.getLong(4)));
+    }
+
+    @SafeVarargs
+    private static String where(List<String>... conditions) {
+        List<String> all = new ArrayList<>();
+        for (List<String> condition : conditions) {
+            all.addAll(condition);
+        }
+        return all.isEmpty() ? "" : " WHERE " + String.join(" AND ", all);
+    }
+
+    // Band boundaries are configuration integers, not user input
+    private static String priceBand(List<Integer> bounds) {
+        if (bounds.isEmpty()) {
+            return "0";
+        }
+        StringBuilder band = new StringBuilder("CASE");
+        for (int i = 0; i < bounds.size(); i++) {
+            band.append(" WHEN p.amount < ").append(bounds.get(i)).append(" THEN ").append(i);
+        }
+        return band.append(" ELSE ").append(bounds.size()).append(" END").toString();
+    }
+}
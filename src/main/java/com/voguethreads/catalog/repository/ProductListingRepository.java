@@ -0,0 +1,79 @@
+package com.voguethreads.catalog.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Product listing and search queries whose WHERE clause holds only the filters that are set.
+ *
+ * <p>A catch-all predicate such as {@code (:minAmount IS NULL OR p.amount >= :minAmount)} is
+ * one statement for every combination of filters, so a cached generic plan has to serve all of
+ * them and cannot use the listing indexes (V2 and V9 migrations). Building the predicates per
+ * request gives each combination its own statement, planned for the filters it has.
+ */
+public interface ProductListingRepository {
+
+    /**
+     * Listing filters; a null value or empty tag list is no filter.
+     *
+     * @param requiredTags distinct tags of {@code tags} a product needs to carry
+     */
+    record Criteria(
+            String query,
+            String category,
+            Collection<String> tags,
+            int requiredTags,
+            Integer minAmount,
+            Integer maxAmount,
+            Boolean inStock,
+            String currency
+    ) {
+    }
+
+    /**
+     * One page of a listing, in the pageable's sort (by entity property). Returned as a slice,
+     * fetching one extra row to tell whether another page exists; totals come from
+     * {@link #countProducts} only when asked for.
+     */
+    Slice<ProductSummary> searchProducts(Criteria criteria, boolean withDescription, Pageable pageable);
+
+    /**
+     * Portable relevance ranking used when full-text search is disabled (e.g. on H2):
+     * name matches outrank SKU matches, which outrank description matches. Needs a query.
+     */
+    Slice<ProductSummary> searchProductsByRelevance(Criteria criteria, boolean withDescription, Pageable pageable);
+
+    /**
+     * Total for {@link #searchProducts} and {@link #searchProductsByRelevance}, which share
+     * their filter.
+     */
+    long countProducts(Criteria criteria);
+
+    /**
+     * Up to {@code limit} rows newest first, after the row at ({@code createdAt}, {@code id})
+     * or from the start when {@code createdAt} is null.
+     */
+    List<ProductSummary> searchProductsAfter(Criteria criteria, Instant createdAt, Long id,
+                                             boolean withDescription, int limit);
+
+    /**
+     * PostgreSQL full-text search over the GIN-indexed search_vector column, in the order of
+     * the pageable's sort (by column name). Returns matching ids only; rows are loaded with
+     * {@link ProductRepository#findSummariesByIdIn}.
+     */
+    Slice<Long> fullTextSearchIds(Criteria criteria, Pageable pageable);
+
+    /**
+     * PostgreSQL full-text search ranked by ts_rank_cd, ties broken newest first.
+     */
+    Slice<Long> fullTextSearchIdsByRelevance(Criteria criteria, Pageable pageable);
+
+    /**
+     * Total for {@link #fullTextSearchIds} and {@link #fullTextSearchIdsByRelevance}.
+     */
+    long countFullTextSearch(Criteria criteria);
+}
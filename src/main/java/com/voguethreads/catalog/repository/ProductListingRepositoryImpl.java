@@ -0,0 +1,244 @@
+package com.voguethreads.catalog.repository;
+
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.model.ProductTag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.AbstractQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * JPA Criteria implementation of {@link ProductListingRepository}. Full-text search needs the
+ * PostgreSQL {@code @@} operator, which JPQL has no syntax for, so its statements are native SQL
+ * assembled from the same set of filters.
+ */
+public class ProductListingRepositoryImpl implements ProductListingRepository {
+
+    private static final String FULL_TEXT_MATCH = "p.search_vector @@ websearch_to_tsquery('english', :query)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<ProductSummary> searchProducts(Criteria criteria, boolean withDescription, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(summary(cb, product, withDescription))
+                .where(predicates(cb, query, product, criteria))
+                .orderBy(QueryUtils.toOrders(pageable.getSort(), product, cb));
+        return slice(entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList(), pageable);
+    }
+
+    @Override
+    public Slice<ProductSummary> searchProductsByRelevance(Criteria criteria, boolean withDescription,
+                                                           Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> product = query.from(Product.class);
+        String pattern = pattern(criteria.query());
+        Expression<Integer> rank = cb.sum(cb.sum(
+                score(cb, product.get("name"), pattern, 3),
+                score(cb, product.get("sku"), pattern, 2)),
+                score(cb, product.get("description"), pattern, 1));
+        query.select(summary(cb, product, withDescription))
+                .where(predicates(cb, query, product, criteria))
+                .orderBy(cb.desc(rank), cb.desc(product.get("createdAt")), cb.desc(product.get("id")));
+        return slice(entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList(), pageable);
+    }
+
+    @Override
+    public long countProducts(Criteria criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Product> product = query.from(Product.class);
+        query.select(cb.count(product)).where(predicates(cb, query, product, criteria));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<ProductSummary> searchProductsAfter(Criteria criteria, Instant createdAt, Long id,
+                                                    boolean withDescription, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummary> query = cb.createQuery(ProductSummary.class);
+        Root<Product> product = query.from(Product.class);
+        List<Predicate> predicates = new ArrayList<>(List.of(predicates(cb, query, product, criteria)));
+        if (createdAt != null) {
+            // The OR alone is only a filter; the redundant bound starts the index range at the cursor
+            Path<Instant> created = product.get("createdAt");
+            predicates.add(cb.lessThanOrEqualTo(created, createdAt));
+            predicates.add(cb.or(cb.lessThan(created, createdAt),
+                    cb.and(cb.equal(created, createdAt), cb.lessThan(product.get("id"), id))));
+        }
+        query.select(summary(cb, product, withDescription))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(product.get("createdAt")), cb.desc(product.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Slice<Long> fullTextSearchIds(Criteria criteria, Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "SELECT p.id FROM products p WHERE " + nativePredicates(criteria, params)
+                + orderBy(pageable.getSort());
+        return slice(ids(sql, params, pageable), pageable);
+    }
+
+    @Override
+    public Slice<Long> fullTextSearchIdsByRelevance(Criteria criteria, Pageable pageable) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        String sql = "SELECT p.id FROM products p WHERE " + nativePredicates(criteria, params)
+                + " ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('english', :query)) DESC, " +
+                "p.created_at DESC, p.id DESC";
+        return slice(ids(sql, params, pageable), pageable);
+    }
+
+    @Override
+    public long countFullTextSearch(Criteria criteria) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        Query query = entityManager.createNativeQuery(
+                "SELECT COUNT(*) FROM products p WHERE " + nativePredicates(criteria, params));
+        params.forEach(query::setParameter);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    private static CompoundSelection<ProductSummary> summary(CriteriaBuilder cb, Root<Product> product,
+                                                              boolean withDescription) {
+        // The TEXT description is only read when the response includes it
+        return cb.construct(ProductSummary.class,
+                product.get("id"), product.get("sku"), product.get("name"),
+                withDescription ? product.get("description") : cb.nullLiteral(String.class),
+                product.get("currency"), product.get("amount"), product.get("quantity"), product.get("inStock"),
+                product.get("category"), product.get("createdAt"), product.get("updatedAt"), product.get("version"));
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, AbstractQuery<?> query, Root<Product> product,
+                                          Criteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.query() != null) {
+            String pattern = pattern(criteria.query());
+            predicates.add(cb.or(
+                    cb.like(cb.lower(product.get("name")), pattern),
+                    cb.like(cb.lower(product.get("description")), pattern),
+                    cb.like(cb.lower(product.get("sku")), pattern)));
+        }
+        if (criteria.category() != null) {
+            predicates.add(cb.equal(product.get("category"), criteria.category()));
+        }
+        if (!criteria.tags().isEmpty()) {
+            // The tag index yields each tag's product ids in order; grouping them per product
+            // replaces one join per tag and never multiplies product rows
+            Subquery<Long> tagged = query.subquery(Long.class);
+            Root<ProductTag> tag = tagged.from(ProductTag.class);
+            tagged.select(tag.get("productId"))
+                    .where(tag.get("tag").in(criteria.tags()))
+                    .groupBy(tag.get("productId"))
+                    .having(cb.ge(cb.countDistinct(tag.get("tag")), criteria.requiredTags()));
+            predicates.add(product.get("id").in(tagged));
+        }
+        if (criteria.minAmount() != null) {
+            predicates.add(cb.ge(product.get("amount"), criteria.minAmount()));
+        }
+        if (criteria.maxAmount() != null) {
+            predicates.add(cb.le(product.get("amount"), criteria.maxAmount()));
+        }
+        if (criteria.inStock() != null) {
+            predicates.add(cb.equal(product.get("inStock"), criteria.inStock()));
+        }
+        if (criteria.currency() != null) {
+            predicates.add(cb.equal(product.get("currency"), criteria.currency()));
+        }
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    private static String nativePredicates(Criteria criteria, Map<String, Object> params) {
+        List<String> predicates = new ArrayList<>(List.of(FULL_TEXT_MATCH));
+        params.put("query", criteria.query());
+        if (criteria.category() != null) {
+            predicates.add("p.category = :category");
+            params.put("category", criteria.category());
+        }
+        if (!criteria.tags().isEmpty()) {
+            predicates.add("p.id IN (SELECT t.product_id FROM product_tags t WHERE t.tag IN (:tags) " +
+                    "GROUP BY t.product_id HAVING COUNT(DISTINCT t.tag) >= :requiredTags)");
+            params.put("tags", criteria.tags());
+            params.put("requiredTags", criteria.requiredTags());
+        }
+        if (criteria.minAmount() != null) {
+            predicates.add("p.amount >= :minAmount");
+            params.put("minAmount", criteria.minAmount());
+        }
+        if (criteria.maxAmount() != null) {
+            predicates.add("p.amount <= :maxAmount");
+            params.put("maxAmount", criteria.maxAmount());
+        }
+        if (criteria.inStock() != null) {
+            predicates.add("p.in_stock = :inStock");
+            params.put("inStock", criteria.inStock());
+        }
+        if (criteria.currency() != null) {
+            predicates.add("p.currency = :currency");
+            params.put("currency", criteria.currency());
+        }
+        return String.join(" AND ", predicates);
+    }
+
+    private List<Long> ids(String sql, Map<String, Object> params, Pageable pageable) {
+        Query query = entityManager.createNativeQuery(sql)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1);
+        params.forEach(query::setParameter);
+        List<?> rows = query.getResultList();
+        return rows.stream().map(row -> ((Number) row).longValue()).toList();
+    }
+
+    // Column names come from ProductSort, never from the request
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        return sort.stream()
+                .map(order -> "p." + order.getProperty() + " " + order.getDirection())
+                .collect(Collectors.joining(", ", " ORDER BY ", ""));
+    }
+
+    private static Expression<Integer> score(CriteriaBuilder cb, Path<String> column, String pattern, int points) {
+        return cb.<Integer>selectCase().when(cb.like(cb.lower(column), pattern), points).otherwise(0);
+    }
+
+    private static String pattern(String query) {
+        return "%" + query.toLowerCase(Locale.ROOT) + "%";
+    }
+
+    private static <T> Slice<T> slice(List<T> rows, Pageable pageable) {
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
@@ -1,31 +1,84 @@
 package com.voguethreads.catalog.repository;
 
 import com.voguethreads.catalog.model.Product;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductListingRepository {
+
+    /**
+     * Select list for {@link ProductSummary} listings. The TEXT description is only read when
+     * {@code :withDescription} is true.
+     */
+    String SUMMARY_SELECT = "SELECT new com.voguethreads.catalog.repository.ProductSummary(" +
+           "p.id, p.sku, p.name, CASE WHEN :withDescription = true THEN p.description ELSE NULL END, " +
+           "p.currency, p.amount, p.quantity, p.inStock, p.category, p.createdAt, p.updatedAt, p.version) ";
 
     Optional<Product> findBySku(String sku);
 
-    boolean existsBySku(String sku);
-
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:query IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) " +
-           "OR LOWER(p.sku) LIKE LOWER(CONCAT('%', :query, '%'))) " +
-           "AND (:category IS NULL OR p.category = :category)")
-    Page<Product> searchProducts(
-        @Param("query") String query,
-        @Param("category") String category,
-        Pageable pageable
+    /**
+     * The optimistic-lock version and last modification time of one product.
+     */
+    interface RowVersion {
+        Long getVersion();
+
+        Instant getUpdatedAt();
+    }
+
+    @Query("SELECT p.version AS version, p.updatedAt AS updatedAt FROM Product p WHERE p.id = :id")
+    Optional<RowVersion> findRowVersionById(@Param("id") Long id);
+
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    /**
+     * Atomically takes {@code quantity} units when enough stock is available.
+     * Returns the number of rows updated: 0 means unknown product or insufficient stock.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :quantity, " +
+           "p.inStock = CASE WHEN p.quantity - :quantity > 0 THEN true ELSE false END, " +
+           "p.updatedAt = :now, p.version = p.version + 1 " +
+           "WHERE p.id = :id AND p.quantity >= :quantity")
+    int decrementQuantity(
+        @Param("id") Long id,
+        @Param("quantity") Integer quantity,
+        @Param("now") Instant now
     );
+
+    /**
+     * Returns {@code quantity} released units to stock. Returns 0 when the product is gone.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :quantity, p.inStock = true, " +
+           "p.updatedAt = :now, p.version = p.version + 1 " +
+           "WHERE p.id = :id")
+    int incrementQuantity(
+        @Param("id") Long id,
+        @Param("quantity") Integer quantity,
+        @Param("now") Instant now
+    );
+
+    @Query(SUMMARY_SELECT + "FROM Product p WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(
+        @Param("ids") Collection<Long> ids,
+        @Param("withDescription") boolean withDescription
+    );
+
+    /**
+     * Tags for a page of listing rows as (productId, tag) pairs, read straight from the
+     * collection table in one query.
+     */
+    @Query(value = "SELECT t.product_id, t.tag FROM product_tags t WHERE t.product_id IN (:ids)", nativeQuery = true)
+    List<Object[]> findTagsByProductIdIn(@Param("ids") Collection<Long> ids);
 }
 
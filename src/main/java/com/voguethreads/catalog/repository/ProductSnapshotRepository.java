@@ -0,0 +1,96 @@
+package com.voguethreads.catalog.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Reads the whole catalog in listing order for the in-memory browse snapshot.
+ *
+ * <p>Like the export, this is one forward-only query with a fetch size, so only one batch of
+ * rows is buffered at a time while the snapshot is filled.
+ */
+@Repository
+public class ProductSnapshotRepository {
+
+    private static final String SNAPSHOT_SQL = "SELECT p.id, p.sku, p.name, p.description, p.currency, " +
+            "p.amount, p.quantity, p.in_stock, p.category, p.created_at, p.updated_at, p.version, t.tag " +
+            "FROM products p LEFT JOIN product_tags t ON t.product_id = p.id " +
+            "ORDER BY p.created_at DESC, p.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductSnapshotRepository(
+            DataSource dataSource,
+            @Value("${snapshot.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Passes every product with its tags to {@code consumer}, newest first.
+     */
+    @Transactional(readOnly = true)
+    public void forEachProduct(BiConsumer<ProductSummary, List<String>> consumer) {
+        ProductRowFolder folder = new ProductRowFolder(consumer);
+        jdbcTemplate.query(SNAPSHOT_SQL, folder);
+        folder.finish();
+    }
+
+    /**
+     * Folds the joined tag rows back into one product; a product is complete when the id changes.
+     */
+    private static final class ProductRowFolder implements RowCallbackHandler {
+
+        private final BiConsumer<ProductSummary, List<String>> consumer;
+        private ProductSummary current;
+        private List<String> tags = new ArrayList<>();
+
+        private ProductRowFolder(BiConsumer<ProductSummary, List<String>> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id() != id) {
+                finish();
+                current = new ProductSummary(
+                        id,
+                        rs.getString("sku"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getString("currency"),
+                        rs.getInt("amount"),
+                        rs.getInt("quantity"),
+                        rs.getBoolean("in_stock"),
+                        rs.getString("category"),
+                        rs.getTimestamp("created_at").toInstant(),
+                        rs.getTimestamp("updated_at").toInstant(),
+                        rs.getLong("version"));
+            }
+            String tag = rs.getString("tag");
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+
+        private void finish() {
+            if (current != null) {
+                consumer.accept(current, tags);
+                current = null;
+                tags = new ArrayList<>();
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.voguethreads.catalog.repository;
+
+import java.time.Instant;
+
+/**
+ * Read model for product listings, selected column by column so no managed entity is created.
+ * Tags are not part of the row; they are loaded for the whole page in one query.
+ */
+public record ProductSummary(
+        Long id,
+        String sku,
+        String name,
+        String description,
+        String currency,
+        Integer amount,
+        Integer quantity,
+        Boolean inStock,
+        String category,
+        Instant createdAt,
+        Instant updatedAt,
+        Long version
+) {
+}
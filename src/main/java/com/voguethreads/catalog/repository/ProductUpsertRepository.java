@@ -0,0 +1,100 @@
+package com.voguethreads.catalog.repository;
+
+import com.voguethreads.catalog.dto.ProductRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Insert-or-update of a product keyed by SKU in one statement.
+ *
+ * <p>On PostgreSQL this is {@code INSERT ... ON CONFLICT (sku) DO UPDATE ... RETURNING}, a single
+ * round trip that is atomic against concurrent upserts of the same SKU. Other databases (H2 in
+ * tests) use a standard {@code MERGE} followed by a lookup. New rows take their id straight from
+ * {@code products_id_seq}; with the pooled optimizer Hibernate never hands out a sequence value
+ * it did not fetch itself, so the two cannot collide.
+ */
+@Repository
+public class ProductUpsertRepository {
+
+    /**
+     * @param inserted whether the row was created; updates always leave {@code version} above 0
+     * @param version  the row's version after this write
+     */
+    public record UpsertedRow(long id, boolean inserted, Instant createdAt, long version) {
+    }
+
+    private static final String COLUMNS = "name = %1$sname, description = %1$sdescription, currency = %1$scurrency, " +
+            "amount = %1$samount, quantity = %1$squantity, in_stock = %1$sin_stock, category = %1$scategory, " +
+            "updated_at = %1$supdated_at, version = products.version + 1";
+
+    private static final String POSTGRES_UPSERT = "INSERT INTO products (id, sku, name, description, currency, " +
+            "amount, quantity, in_stock, category, created_at, updated_at, version) " +
+            "VALUES (nextval('products_id_seq'), :sku, :name, :description, :currency, :amount, :quantity, " +
+            ":in_stock, :category, :updated_at, :updated_at, 0) " +
+            "ON CONFLICT (sku) DO UPDATE SET " + COLUMNS.formatted("EXCLUDED.") + " " +
+            "RETURNING id, created_at, version";
+
+    private static final String MERGE = "MERGE INTO products USING (VALUES (CAST(:sku AS VARCHAR(50)))) s(sku) " +
+            "ON products.sku = s.sku " +
+            "WHEN MATCHED THEN UPDATE SET " + COLUMNS.formatted(":") + " " +
+            "WHEN NOT MATCHED THEN INSERT (id, sku, name, description, currency, amount, quantity, in_stock, " +
+            "category, created_at, updated_at, version) VALUES (NEXT VALUE FOR products_id_seq, :sku, :name, " +
+            ":description, :currency, :amount, :quantity, :in_stock, :category, :updated_at, :updated_at, 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public ProductUpsertRepository(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${spring.datasource.url}") String datasourceUrl
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = DatabaseDriver.fromJdbcUrl(datasourceUrl) == DatabaseDriver.POSTGRESQL;
+    }
+
+    /**
+     * Writes the product row and replaces its tags. Must run in a transaction.
+     */
+    public UpsertedRow upsert(String sku, ProductRequest request, Instant now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("sku", sku)
+                .addValue("name", request.getName())
+                .addValue("description", request.getDescription())
+                .addValue("currency", request.getCurrency())
+                .addValue("amount", request.getAmount())
+                .addValue("quantity", request.getQuantity())
+                .addValue("in_stock", request.getQuantity() > 0)
+                .addValue("category", request.getCategory())
+                .addValue("updated_at", Timestamp.from(now));
+
+        if (!postgres) {
+            jdbcTemplate.update(MERGE, params);
+        }
+        UpsertedRow row = jdbcTemplate.queryForObject(
+                postgres ? POSTGRES_UPSERT : "SELECT id, created_at, version FROM products WHERE sku = :sku",
+                params,
+                (rs, rowNum) -> new UpsertedRow(rs.getLong("id"), rs.getLong("version") == 0,
+                        rs.getTimestamp("created_at").toInstant(), rs.getLong("version")));
+
+        if (!row.inserted()) {
+            jdbcTemplate.update("DELETE FROM product_tags WHERE product_id = :id",
+                    new MapSqlParameterSource("id", row.id()));
+        }
+        List<String> tags = request.getTags();
+        if (tags != null && !tags.isEmpty()) {
+            SqlParameterSource[] batch = tags.stream()
+                    .map(tag -> new MapSqlParameterSource().addValue("id", row.id()).addValue("tag", tag))
+                    .toArray(SqlParameterSource[]::new);
+            jdbcTemplate.batchUpdate("INSERT INTO product_tags (product_id, tag) VALUES (:id, :tag)", batch);
+        }
+        return row;
+    }
+}
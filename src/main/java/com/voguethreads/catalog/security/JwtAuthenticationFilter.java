@@ -34,9 +34,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = extractTokenFromRequest(request);
 
-            if (token != null && !jwtTokenProvider.isTokenExpired(token)) {
-                String userId = jwtTokenProvider.getUserIdFromToken(token);
-                List<String> roles = jwtTokenProvider.getRolesFromToken(token);
+            if (token != null) {
+                JwtPrincipal principal = jwtTokenProvider.parseToken(token);
+                String userId = principal.subject();
+                List<String> roles = principal.roles();
 
                 List<SimpleGrantedAuthority> authorities = roles.stream()
                         .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
@@ -0,0 +1,19 @@
+package com.voguethreads.catalog.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable view of a verified JWT: everything the request pipeline needs,
+ * extracted from a single parse of the token.
+ */
+public record JwtPrincipal(String subject, String email, List<String> roles, Instant expiresAt) {
+
+    public JwtPrincipal {
+        roles = roles != null ? List.copyOf(roles) : List.of();
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,62 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.ProductChangeResponse;
+import com.voguethreads.catalog.dto.ProductChangesResponse;
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.mapper.ProductMapper;
+import com.voguethreads.catalog.repository.ProductChangeEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Reads the published product change feed. Consumers keep the last position they processed
+ * and pass it back as {@code since} to receive only what changed after it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ProductChangeService {
+
+    private final ProductChangeEventRepository eventRepository;
+    private final ProductMapper productMapper;
+
+    @Value("${changes.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${changes.max-limit:1000}")
+    private int maxLimit;
+
+    public ProductChangesResponse listChanges(Long since, Integer limit) {
+        log.debug("Listing product changes - since: {}, limit: {}", since, limit);
+        if (since != null && since < 0) {
+            throw new InvalidRequestException("since must not be negative");
+        }
+
+        long position = since != null ? since : 0;
+        int actualLimit = (limit != null && limit > 0) ? Math.min(limit, maxLimit) : defaultLimit;
+        // One extra row tells whether the consumer should poll again straight away
+        List<ProductChangeResponse> changes = changesAfter(position, actualLimit + 1);
+
+        boolean hasMore = changes.size() > actualLimit;
+        List<ProductChangeResponse> page = hasMore ? changes.subList(0, actualLimit) : changes;
+        return ProductChangesResponse.builder()
+                .changes(page)
+                .nextSince(page.isEmpty() ? position : page.get(page.size() - 1).getPosition())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public List<ProductChangeResponse> changesAfter(long position, int limit) {
+        return eventRepository.findByPositionGreaterThanOrderByPositionAsc(position, Limit.of(limit))
+                .stream()
+                .map(productMapper::toChangeResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.voguethreads.catalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.voguethreads.catalog.metrics.CatalogMetrics;
+import com.voguethreads.catalog.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+
+/**
+ * Totals for offset listings.
+ *
+ * <p>An exact count scans every matching row, which on a popular category costs more than the
+ * page itself, so listings only count when a client asks for the total. Each count is kept for
+ * a short TTL per filter and offered to later pages of the same listing as an approximate
+ * total; like facet counts, it is not invalidated on writes.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class ProductCountService {
+
+    private final ProductRepository productRepository;
+    private final CatalogMetrics catalogMetrics;
+    private final boolean fullTextSearchEnabled;
+    private final Cache<ProductFilter, Long> cache;
+
+    public ProductCountService(
+            ProductRepository productRepository,
+            CatalogMetrics catalogMetrics,
+            MeterRegistry meterRegistry,
+            @Value("${pagination.count-cache-ttl:30s}") Duration cacheTtl,
+            @Value("${search.full-text-enabled:false}") boolean fullTextSearchEnabled
+    ) {
+        this.productRepository = productRepository;
+        this.catalogMetrics = catalogMetrics;
+        this.fullTextSearchEnabled = fullTextSearchEnabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "listing-counts");
+    }
+
+    /**
+     * Counts the products matching {@code filter} and remembers the result.
+     */
+    public long count(ProductFilter filter) {
+        long start = System.nanoTime();
+        long total = filter.hasQuery() && fullTextSearchEnabled
+                ? productRepository.countFullTextSearch(filter.criteria())
+                : productRepository.countProducts(filter.criteria());
+        catalogMetrics.recordCount(start);
+        cache.put(filter, total);
+        return total;
+    }
+
+    /**
+     * The last total counted for {@code filter} within the TTL, or null.
+     */
+    public Long cached(ProductFilter filter) {
+        return cache.getIfPresent(filter);
+    }
+
+    /**
+     * Remembers a total that is known without counting, e.g. from reaching the last page.
+     */
+    public void remember(ProductFilter filter, long total) {
+        cache.put(filter, total);
+    }
+}
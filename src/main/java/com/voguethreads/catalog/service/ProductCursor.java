@@ -0,0 +1,37 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.repository.ProductSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for listing products by (createdAt DESC, id DESC).
+ */
+public record ProductCursor(Instant createdAt, Long id) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public static ProductCursor of(ProductSummary product) {
+        return new ProductCursor(product.createdAt(), product.id());
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new ProductCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return ENCODER.encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
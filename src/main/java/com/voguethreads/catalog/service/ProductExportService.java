@@ -0,0 +1,237 @@
+package com.voguethreads.catalog.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.voguethreads.catalog.exception.CapacityExceededException;
+import com.voguethreads.catalog.mapper.ProductMapper;
+import com.voguethreads.catalog.repository.ProductSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams the whole catalog as NDJSON or CSV.
+ *
+ * <p>Products and their tags come from one forward-only query ordered by id, read with a
+ * fetch size so the driver holds one batch of rows at a time (PostgreSQL needs the read-only
+ * transaction for that, or it loads the full result). Each product is written as soon as its
+ * last tag row is seen, so heap use does not grow with the size of the catalog.
+ *
+ * <p>An export holds a pooled connection and an open read-only transaction for as long as the
+ * client keeps reading, so callers first claim one of {@code export.max-concurrent} slots.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String EXPORT_SQL = "SELECT p.id, p.sku, p.name, p.description, p.currency, " +
+            "p.amount, p.quantity, p.in_stock, p.category, p.created_at, p.updated_at, p.version, t.tag " +
+            "FROM products p LEFT JOIN product_tags t ON t.product_id = p.id ORDER BY p.id";
+
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("sku")
+            .addColumn("name")
+            .addColumn("description")
+            .addColumn("currency")
+            .addColumn("amount")
+            .addColumn("quantity")
+            .addColumn("inStock")
+            .addColumn("category")
+            .addColumn("tags")
+            .addColumn("createdAt")
+            .addColumn("updatedAt")
+            .build()
+            .withHeader();
+
+    // Exports run for minutes, so a rejected client should not come straight back
+    private static final Duration RETRY_AFTER = Duration.ofMinutes(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductMapper productMapper;
+    private final Semaphore slots;
+    private final ObjectWriter jsonWriter;
+    private final ObjectWriter csvWriter;
+
+    public ProductExportService(
+            DataSource dataSource,
+            ProductMapper productMapper,
+            ObjectMapper objectMapper,
+            @Value("${export.fetch-size:1000}") int fetchSize,
+            @Value("${export.max-concurrent:2}") int maxConcurrent
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.slots = new Semaphore(maxConcurrent);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.productMapper = productMapper;
+        // Flushing per row would turn every product into its own network write
+        this.jsonWriter = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        this.csvWriter = new CsvMapper().writer(CSV_SCHEMA)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Claims an export slot without waiting, to be held around {@link #export} and closed after.
+     *
+     * @throws CapacityExceededException when every slot is taken
+     */
+    public Slot acquireSlot() {
+        if (!slots.tryAcquire()) {
+            throw new CapacityExceededException("Too many catalog exports in progress, please retry later",
+                    RETRY_AFTER);
+        }
+        return new Slot();
+    }
+
+    /**
+     * Writes every product to {@code output}. The stream is flushed but not closed.
+     *
+     * @return number of products written
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        ProductRowHandler handler;
+        try (SequenceWriter writer = (format == Format.CSV ? csvWriter : jsonWriter).writeValues(output)) {
+            handler = new ProductRowHandler(writer, format);
+            jdbcTemplate.query(EXPORT_SQL, handler);
+            handler.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // The separator only goes between values; NDJSON ends every line
+        if (format == Format.NDJSON && handler.count > 0) {
+            output.write('\n');
+        }
+        output.flush();
+        long count = handler.count;
+        log.info("Exported {} products as {} in {} ms", count, format, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    public final class Slot implements AutoCloseable {
+
+        private boolean released;
+
+        private Slot() {
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * Folds the joined tag rows back into one product. Rows arrive ordered by product id,
+     * so a product is complete when the id changes.
+     */
+    private final class ProductRowHandler implements RowCallbackHandler {
+
+        private final SequenceWriter writer;
+        private final Format format;
+        private ProductSummary current;
+        private List<String> tags = new ArrayList<>();
+        private long count;
+
+        private ProductRowHandler(SequenceWriter writer, Format format) {
+            this.writer = writer;
+            this.format = format;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id() != id) {
+                finish();
+                current = new ProductSummary(
+                        id,
+                        rs.getString("sku"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getString("currency"),
+                        rs.getInt("amount"),
+                        rs.getInt("quantity"),
+                        rs.getBoolean("in_stock"),
+                        rs.getString("category"),
+                        toInstant(rs.getTimestamp("created_at")),
+                        toInstant(rs.getTimestamp("updated_at")),
+                        rs.getLong("version"));
+            }
+            String tag = rs.getString("tag");
+            if (tag != null) {
+                tags.add(tag);
+            }
+        }
+
+        private void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                if (format == Format.CSV) {
+                    writer.write(toCsvRow(current, tags));
+                } else {
+                    writer.write(productMapper.toResponse(current, tags));
+                }
+            } catch (IOException e) {
+                // Client disconnected; abort the query instead of reading the rest of the catalog
+                throw new UncheckedIOException(e);
+            }
+            count++;
+            current = null;
+            tags = new ArrayList<>();
+        }
+    }
+
+    private static Object[] toCsvRow(ProductSummary product, List<String> tags) {
+        return new Object[]{
+                "prod_" + product.id(),
+                product.sku(),
+                product.name(),
+                product.description(),
+                product.currency(),
+                product.amount(),
+                product.quantity(),
+                product.inStock(),
+                product.category(),
+                String.join("|", tags),
+                String.valueOf(product.createdAt()),
+                String.valueOf(product.updatedAt())
+        };
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -0,0 +1,145 @@
+package com.voguethreads.catalog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.voguethreads.catalog.dto.ProductFacetsResponse;
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.metrics.CatalogMetrics;
+import com.voguethreads.catalog.repository.ProductFacetRepository;
+import com.voguethreads.catalog.repository.ProductFacetRepository.FacetCount;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Sidebar facet counts (category, tag, price band per currency, stock) for a listing's filters,
+ * from one grouped statement.
+ *
+ * <p>Counts without a search query (catalog and category landing pages, the bulk of sidebar
+ * traffic) are cached for a short TTL instead of being invalidated on writes: every checkout
+ * changes stock, and slightly stale sidebar counts are acceptable where a full recount per
+ * decrement is not.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class ProductFacetService {
+
+    private final ProductFacetRepository facetRepository;
+    private final CatalogMetrics catalogMetrics;
+    private final List<Integer> priceBands;
+    private final int maxValues;
+    private final boolean fullTextSearchEnabled;
+    private final int maxTags;
+    private final Cache<ProductFilter, ProductFacetsResponse> cache;
+
+    public ProductFacetService(
+            ProductFacetRepository facetRepository,
+            CatalogMetrics catalogMetrics,
+            MeterRegistry meterRegistry,
+            @Value("${facets.price-bands:2500,5000,10000,20000}") List<Integer> priceBands,
+            @Value("${facets.max-values:50}") int maxValues,
+            @Value("${facets.cache-ttl:30s}") Duration cacheTtl,
+            @Value("${search.full-text-enabled:false}") boolean fullTextSearchEnabled,
+            @Value("${search.max-tags:10}") int maxTags
+    ) {
+        for (int i = 1; i < priceBands.size(); i++) {
+            if (priceBands.get(i) <= priceBands.get(i - 1)) {
+                throw new IllegalArgumentException("facets.price-bands must be ascending: " + priceBands);
+            }
+        }
+        this.facetRepository = facetRepository;
+        this.catalogMetrics = catalogMetrics;
+        this.priceBands = List.copyOf(priceBands);
+        this.maxValues = maxValues;
+        this.fullTextSearchEnabled = fullTextSearchEnabled;
+        this.maxTags = maxTags;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "facets");
+    }
+
+    /**
+     * Counts for the products a listing with the same filters would return. Category, price and
+     * stock counts each ignore their own filter, like the category facet always has.
+     */
+    public ProductFacetsResponse getFacets(ProductFilter filter) {
+        log.debug("Getting facets - filter: {}", filter);
+        if (filter.tags().size() > maxTags) {
+            throw new InvalidRequestException("At most " + maxTags + " tags are allowed per request");
+        }
+        if (!filter.hasQuery()) {
+            return cache.get(filter, this::countFacets);
+        }
+        return countFacets(filter);
+    }
+
+    private ProductFacetsResponse countFacets(ProductFilter filter) {
+        String category = (filter.category() == null || filter.category().isBlank()) ? null : filter.category();
+        long start = System.nanoTime();
+        List<FacetCount> counts = facetRepository.countFacets(new ProductFacetRepository.Criteria(
+                filter.query(), fullTextSearchEnabled, category, filter.tags(), filter.requiredTags(),
+                filter.minAmount(), filter.maxAmount(), filter.inStock(), filter.currency()), priceBands, maxValues);
+        catalogMetrics.recordFacets(start);
+
+        List<ProductFacetsResponse.FacetValue> categories = new ArrayList<>();
+        List<ProductFacetsResponse.FacetValue> tags = new ArrayList<>();
+        Map<String, long[]> bandCounts = new TreeMap<>();
+        if (filter.currency() != null) {
+            bandCounts.put(filter.currency(), new long[priceBands.size() + 1]);
+        }
+        long inStock = 0;
+        long outOfStock = 0;
+        for (FacetCount count : counts) {
+            switch (count.facet()) {
+                case CATEGORY -> categories.add(new ProductFacetsResponse.FacetValue(count.value(), count.count()));
+                case TAG -> tags.add(new ProductFacetsResponse.FacetValue(count.value(), count.count()));
+                case PRICE_BAND -> bandCounts.computeIfAbsent(count.currency(),
+                        currency -> new long[priceBands.size() + 1])[Integer.parseInt(count.value())] = count.count();
+                case IN_STOCK -> {
+                    if (Boolean.parseBoolean(count.value())) {
+                        inStock = count.count();
+                    } else {
+                        outOfStock = count.count();
+                    }
+                }
+            }
+        }
+
+        // Every band of each matched currency is listed, empty ones with a zero count, so the
+        // sidebar layout is stable
+        List<ProductFacetsResponse.PriceBand> bands = new ArrayList<>();
+        bandCounts.forEach((currency, countsByBand) -> {
+            for (int i = 0; i < countsByBand.length; i++) {
+                bands.add(ProductFacetsResponse.PriceBand.builder()
+                        .currency(currency)
+                        .min(i == 0 ? null : priceBands.get(i - 1))
+                        .max(i == priceBands.size() ? null : priceBands.get(i))
+                        .count(countsByBand[i])
+                        .build());
+            }
+        });
+
+        // The stock facet ignores the stock filter, so only the selected state is in the result
+        long total = filter.inStock() == null ? inStock + outOfStock : filter.inStock() ? inStock : outOfStock;
+        return ProductFacetsResponse.builder()
+                .total(total)
+                .categories(categories)
+                .tags(tags)
+                .priceBands(bands)
+                .inStock(new ProductFacetsResponse.StockCounts(inStock, outOfStock))
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.exception.InvalidRequestException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Response fields selectable with the listing {@code fields} parameter. The id is always returned.
+ */
+public enum ProductField {
+
+    ID("id", response -> { }),
+    SKU("sku", response -> response.setSku(null)),
+    NAME("name", response -> response.setName(null)),
+    DESCRIPTION("description", response -> response.setDescription(null)),
+    PRICE("price", response -> response.setPrice(null)),
+    INVENTORY("inventory", response -> response.setInventory(null)),
+    CATEGORY("category", response -> response.setCategory(null)),
+    TAGS("tags", response -> response.setTags(null)),
+    CREATED_AT("createdAt", response -> response.setCreatedAt(null)),
+    UPDATED_AT("updatedAt", response -> response.setUpdatedAt(null));
+
+    public static final Set<ProductField> ALL = Collections.unmodifiableSet(EnumSet.allOf(ProductField.class));
+
+    private final String jsonName;
+    private final Consumer<ProductResponse> clearer;
+
+    ProductField(String jsonName, Consumer<ProductResponse> clearer) {
+        this.jsonName = jsonName;
+        this.clearer = clearer;
+    }
+
+    /**
+     * Parses a comma-separated list such as {@code name,price,tags}; blank means all fields.
+     */
+    public static Set<ProductField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<ProductField> selected = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            selected.add(fromJsonName(name.trim()));
+        }
+        return selected;
+    }
+
+    /**
+     * Clears every field of the response that was not selected.
+     */
+    public static ProductResponse retain(ProductResponse response, Set<ProductField> fields) {
+        if (fields.size() < ALL.size()) {
+            for (ProductField field : EnumSet.complementOf(EnumSet.copyOf(fields))) {
+                field.clearer.accept(response);
+            }
+        }
+        return response;
+    }
+
+    private static ProductField fromJsonName(String name) {
+        for (ProductField field : values()) {
+            if (field.jsonName.equals(name)) {
+                return field;
+            }
+        }
+        throw new InvalidRequestException("Unsupported field: " + name);
+    }
+}
@@ -0,0 +1,76 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.repository.ProductListingRepository;
+import lombok.Builder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Filters of a product listing, shared by offset and cursor pagination. A blank query is no
+ * query; tags are trimmed, with blanks and duplicates dropped. Prices are in minor units and
+ * both bounds are inclusive. Equal filters select the same products, so a filter also keys
+ * cached totals.
+ */
+@Builder
+public record ProductFilter(
+        String query,
+        String category,
+        List<String> tags,
+        TagMatch tagMatch,
+        Integer minAmount,
+        Integer maxAmount,
+        Boolean inStock,
+        String currency
+) {
+
+    public ProductFilter {
+        query = (query == null || query.isBlank()) ? null : query;
+        Set<String> distinct = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    distinct.add(tag.trim());
+                }
+            }
+        }
+        tags = List.copyOf(distinct);
+        tagMatch = tagMatch != null ? tagMatch : TagMatch.ANY;
+        if ((minAmount != null && minAmount < 0) || (maxAmount != null && maxAmount < 0)) {
+            throw new InvalidRequestException("minAmount and maxAmount must not be negative");
+        }
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new InvalidRequestException("minAmount must not be greater than maxAmount");
+        }
+        currency = (currency == null || currency.isBlank()) ? null : currency.trim().toUpperCase(Locale.ROOT);
+    }
+
+    public static ProductFilter of(String query, String category) {
+        return builder().query(query).category(category).build();
+    }
+
+    public static ProductFilter of(String query, String category, List<String> tags, String tagMatch) {
+        return builder().query(query).category(category).tags(tags).tagMatch(TagMatch.from(tagMatch)).build();
+    }
+
+    public boolean hasQuery() {
+        return query != null;
+    }
+
+    /** The filters as the listing queries take them. */
+    public ProductListingRepository.Criteria criteria() {
+        return new ProductListingRepository.Criteria(query, category, tags, requiredTags(),
+                minAmount, maxAmount, inStock, currency);
+    }
+
+    /** Distinct tags a product needs to match: 0 without a tag filter, 1 for any, all of them for all. */
+    public int requiredTags() {
+        if (tags.isEmpty()) {
+            return 0;
+        }
+        return tagMatch == TagMatch.ALL ? tags.size() : 1;
+    }
+}
@@ -0,0 +1,38 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.exception.ProductNotFoundException;
+
+/**
+ * Parses product ids given as {@code prod_123} or as a plain number.
+ */
+public final class ProductIds {
+
+    private static final String PREFIX = "prod_";
+
+    private ProductIds() {
+    }
+
+    public static Long parse(String idString) {
+        Long id = tryParse(idString);
+        if (id == null) {
+            throw new ProductNotFoundException("Invalid product ID format: " + idString);
+        }
+        return id;
+    }
+
+    /**
+     * @return the id, or null if the string is not a product id
+     */
+    public static Long tryParse(String idString) {
+        try {
+            // Handle "prod_123" format
+            if (idString.startsWith(PREFIX)) {
+                return Long.parseLong(idString.substring(PREFIX.length()));
+            }
+            // Handle numeric ID
+            return Long.parseLong(idString);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
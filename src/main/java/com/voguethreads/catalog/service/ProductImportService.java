@@ -0,0 +1,259 @@
+package com.voguethreads.catalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.voguethreads.catalog.cache.ProductCache;
+import com.voguethreads.catalog.dto.BulkImportResponse;
+import com.voguethreads.catalog.dto.ProductRequest;
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.mapper.ProductMapper;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.model.ProductChangeType;
+import com.voguethreads.catalog.outbox.ProductOutbox;
+import com.voguethreads.catalog.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams NDJSON or CSV product rows into the catalog in fixed-size chunks.
+ *
+ * <p>Only one chunk is held in memory at a time. Each chunk is validated, checked for
+ * existing SKUs with a single IN query and written in its own transaction with JDBC batching,
+ * so a bad chunk never rolls back rows that were already committed.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductOutbox productOutbox;
+    private final ProductCache productCache;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductImportService(
+            ProductRepository productRepository,
+            ProductMapper productMapper,
+            ProductOutbox productOutbox,
+            ProductCache productCache,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${bulk-import.chunk-size:500}") int chunkSize,
+            @Value("${bulk-import.max-reported-errors:1000}") int maxReportedErrors
+    ) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.productOutbox = productOutbox;
+        this.productCache = productCache;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonReader = objectMapper.readerFor(ProductRequest.class);
+        this.csvReader = new CsvMapper()
+                .readerFor(ProductRequest.class)
+                .with(CsvSchema.emptySchema().withHeader().withArrayElementSeparator("|"));
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public BulkImportResponse importProducts(InputStream input, Format format) throws IOException {
+        log.info("Starting bulk import ({})", format);
+        ImportRun run = new ImportRun();
+
+        if (format == Format.NDJSON) {
+            readNdjson(input, run);
+        } else {
+            readCsv(input, run);
+        }
+        flushChunk(run);
+
+        long durationMs = Math.max(1, (System.nanoTime() - run.startNanos) / 1_000_000);
+        double rowsPerSecond = run.imported * 1000.0 / durationMs;
+        log.info("Bulk import finished - received: {}, imported: {}, failed: {}, duration: {} ms, throughput: {} rows/s",
+                run.received, run.imported, run.failed, durationMs, String.format("%.0f", rowsPerSecond));
+
+        return BulkImportResponse.builder()
+                .received(run.received)
+                .imported(run.imported)
+                .failed(run.failed)
+                .durationMs(durationMs)
+                .rowsPerSecond(Math.round(rowsPerSecond * 10) / 10.0)
+                .errors(run.errors)
+                .errorsTruncated(run.failed > run.errors.size())
+                .build();
+    }
+
+    private void readNdjson(InputStream input, ImportRun run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        long row = 0;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.received++;
+            ProductRequest request;
+            try {
+                request = jsonReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.fail(row, null, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (request == null) {
+                // A literal null line binds to no object at all
+                run.fail(row, null, "Malformed JSON: expected an object");
+                continue;
+            }
+            accept(row, request, run);
+        }
+    }
+
+    private void readCsv(InputStream input, ImportRun run) throws IOException {
+        try (MappingIterator<ProductRequest> rows = csvReader.readValues(input)) {
+            long row = 1; // header
+            while (true) {
+                ProductRequest request;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    row++;
+                    run.received++;
+                    request = rows.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    run.fail(row, null, "Malformed CSV row: " + e.getMessage());
+                    continue;
+                }
+                accept(row, request, run);
+            }
+        } catch (IOException e) {
+            throw new InvalidRequestException("Unreadable CSV input: " + e.getMessage());
+        }
+    }
+
+    private void accept(long row, ProductRequest request, ImportRun run) {
+        Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            run.fail(row, request.getSku(), message);
+            return;
+        }
+        if (!run.seenSkus.add(request.getSku())) {
+            run.fail(row, request.getSku(), "Duplicate SKU within import");
+            return;
+        }
+
+        run.chunk.add(new PendingRow(row, request));
+        if (run.chunk.size() >= chunkSize) {
+            flushChunk(run);
+        }
+    }
+
+    private void flushChunk(ImportRun run) {
+        if (run.chunk.isEmpty()) {
+            return;
+        }
+        List<PendingRow> chunk = run.chunk;
+        run.chunk = new ArrayList<>(chunkSize);
+
+        try {
+            List<PendingRow> rejected = transactionTemplate.execute(status -> writeChunk(chunk));
+            for (PendingRow row : rejected) {
+                run.fail(row.row(), row.request().getSku(),
+                        "Product with SKU '" + row.request().getSku() + "' already exists");
+            }
+            run.imported += chunk.size() - rejected.size();
+        } catch (DataAccessException e) {
+            log.error("Bulk import chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+            for (PendingRow row : chunk) {
+                run.fail(row.row(), row.request().getSku(), "Chunk rejected by database");
+            }
+        }
+    }
+
+    private List<PendingRow> writeChunk(List<PendingRow> chunk) {
+        List<String> skus = chunk.stream().map(row -> row.request().getSku()).toList();
+        Set<String> existing = new HashSet<>(productRepository.findExistingSkus(skus));
+
+        List<PendingRow> rejected = new ArrayList<>();
+        List<Product> products = new ArrayList<>(chunk.size());
+        for (PendingRow row : chunk) {
+            if (existing.contains(row.request().getSku())) {
+                rejected.add(row);
+            } else {
+                products.add(productMapper.toEntity(row.request()));
+            }
+        }
+
+        productRepository.saveAll(products);
+        // Ids are assigned on persist, so the outbox rows go out in the same flush
+        for (Product product : products) {
+            productOutbox.productChanged(ProductChangeType.CREATED, product.getId(), productMapper.toResponse(product));
+        }
+        if (!products.isEmpty()) {
+            // Nothing cached under a new id, but listing pages must drop, once for the whole chunk
+            productCache.evictPages();
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return rejected;
+    }
+
+    private record PendingRow(long row, ProductRequest request) {
+    }
+
+    private class ImportRun {
+        private final long startNanos = System.nanoTime();
+        // SKUs seen so far, to reject duplicates inside the same upload
+        private final Set<String> seenSkus = new HashSet<>();
+        private final List<BulkImportResponse.RowError> errors = new ArrayList<>();
+        private List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        private long received;
+        private long imported;
+        private long failed;
+
+        private void fail(long row, String sku, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(BulkImportResponse.RowError.builder().row(row).sku(sku).message(message).build());
+            }
+        }
+    }
+}
@@ -1,24 +1,60 @@
 package com.voguethreads.catalog.service;
 
+import com.voguethreads.catalog.cache.ProductCache;
+import com.voguethreads.catalog.cache.ProductSnapshot;
 import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductBatchResponse;
+import com.voguethreads.catalog.dto.ProductPatchRequest;
 import com.voguethreads.catalog.dto.ProductRequest;
 import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.dto.ReservationRequest;
+import com.voguethreads.catalog.dto.ReservationResponse;
 import com.voguethreads.catalog.exception.ProductNotFoundException;
 import com.voguethreads.catalog.exception.DuplicateSkuException;
+import com.voguethreads.catalog.exception.InsufficientStockException;
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.exception.PreconditionFailedException;
+import com.voguethreads.catalog.exception.ReservationNotFoundException;
+import com.voguethreads.catalog.exception.ReservationStateException;
 import com.voguethreads.catalog.mapper.ProductMapper;
+import com.voguethreads.catalog.metrics.CatalogMetrics;
+import com.voguethreads.catalog.model.InventoryReservation;
 import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.model.ProductChangeType;
+import com.voguethreads.catalog.model.ReservationStatus;
+import com.voguethreads.catalog.outbox.ProductOutbox;
+import com.voguethreads.catalog.repository.InventoryReservationRepository;
 import com.voguethreads.catalog.repository.ProductRepository;
+import com.voguethreads.catalog.repository.ProductListingRepository;
+import com.voguethreads.catalog.repository.ProductSummary;
+import com.voguethreads.catalog.repository.ProductUpsertRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,8 +63,17 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class ProductService {
 
+    private static final String RESERVATION_PREFIX = "res_";
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final CatalogMetrics catalogMetrics;
+    private final ProductOutbox productOutbox;
+    private final ProductUpsertRepository productUpsertRepository;
+    private final ObjectProvider<ProductSnapshotService> productSnapshots;
+    private final ProductCountService productCountService;
+    private final InventoryReservationRepository reservationRepository;
 
     @Value("${pagination.default-page-size:20}")
     private int defaultPageSize;
@@ -36,85 +81,284 @@ public class ProductService {
     @Value("${pagination.max-page-size:100}")
     private int maxPageSize;
 
+    @Value("${multi-get.max-ids:100}")
+    private int maxBatchIds;
+
+    @Value("${search.full-text-enabled:false}")
+    private boolean fullTextSearchEnabled;
+
+    @Value("${search.max-tags:10}")
+    private int maxTags;
+
+    @Value("${inventory.reservation.ttl:0s}")
+    private Duration reservationTtl = Duration.ZERO;
+
+    /**
+     * One offset page. Rows are read as a slice, so {@code hasNext} costs one extra row and no
+     * count. Totals are counted only with {@code includeTotal}; otherwise they are exact when
+     * this is the last page, taken from a recent count of the same filter when there is one
+     * ({@code totalExact=false}) and left out when there is not.
+     */
     public PagedResponse<ProductResponse> listProducts(
             Integer page,
             Integer pageSize,
-            String query,
-            String category
+            ProductFilter filter,
+            String sort,
+            String fields,
+            boolean includeTotal
     ) {
-        log.debug("Listing products - page: {}, pageSize: {}, query: {}, category: {}",
-                page, pageSize, query, category);
+        log.debug("Listing products - page: {}, pageSize: {}, filter: {}, sort: {}, fields: {}, includeTotal: {}",
+                page, pageSize, filter, sort, fields, includeTotal);
 
         int actualPage = (page != null && page > 0) ? page - 1 : 0;
-        int actualPageSize = (pageSize != null && pageSize > 0)
-                ? Math.min(pageSize, maxPageSize)
-                : defaultPageSize;
+        int actualPageSize = resolvePageSize(pageSize);
+        ProductSort productSort = ProductSort.from(sort);
+        Set<ProductField> selectedFields = ProductField.parse(fields);
+        checkTags(filter);
+
+        long start = System.nanoTime();
+        Slice<ProductSummary> productPage = findProductPage(
+                filter, productSort, selectedFields.contains(ProductField.DESCRIPTION),
+                actualPage, actualPageSize);
+        catalogMetrics.recordSearch(false, start);
+
+        Long total;
+        boolean exact = true;
+        if (includeTotal) {
+            total = productCountService.count(filter);
+        } else if (!productPage.hasNext() && (productPage.hasContent() || actualPage == 0)) {
+            total = (long) actualPage * actualPageSize + productPage.getNumberOfElements();
+            productCountService.remember(filter, total);
+        } else {
+            total = productCountService.cached(filter);
+            exact = false;
+        }
+
+        return PagedResponse.<ProductResponse>builder()
+                .items(toResponses(productPage.getContent(), selectedFields))
+                .page(actualPage + 1)
+                .pageSize(actualPageSize)
+                .totalItems(total)
+                .totalPages(total != null ? (int) ((total + actualPageSize - 1) / actualPageSize) : null)
+                .totalExact(total != null ? exact : null)
+                .hasNext(productPage.hasNext())
+                .build();
+    }
+
+    /**
+     * Newest-first listing with only a category filter, for anonymous browsing. With the
+     * snapshot enabled and built it is answered from memory and may trail the database by a
+     * snapshot poll interval; otherwise it is {@link #listProducts} without a query.
+     */
+    public PagedResponse<ProductResponse> browseProducts(Integer page, Integer pageSize, String category) {
+        ProductSnapshotService snapshots = productSnapshots.getIfAvailable();
+        ProductSnapshot snapshot = snapshots != null ? snapshots.current() : null;
+        if (snapshot == null) {
+            return listProducts(page, pageSize, ProductFilter.of(null, category), null, null, false);
+        }
 
-        Pageable pageable = PageRequest.of(actualPage, actualPageSize, Sort.by("createdAt").descending());
-        Page<Product> productPage = productRepository.searchProducts(query, category, pageable);
+        int actualPage = (page != null && page > 0) ? page - 1 : 0;
+        int actualPageSize = resolvePageSize(pageSize);
+        long offset = (long) actualPage * actualPageSize;
 
-        List<ProductResponse> items = productPage.getContent().stream()
-                .map(productMapper::toResponse)
-                .collect(Collectors.toList());
+        long start = System.nanoTime();
+        ProductSnapshot.Page result = snapshot.page(category, (int) Math.min(offset, Integer.MAX_VALUE), actualPageSize);
+        catalogMetrics.recordSnapshotPage(start);
 
         return PagedResponse.<ProductResponse>builder()
-                .items(items)
+                .items(result.items())
                 .page(actualPage + 1)
                 .pageSize(actualPageSize)
-                .totalItems(productPage.getTotalElements())
-                .totalPages(productPage.getTotalPages())
+                .totalItems((long) result.totalItems())
+                .totalPages((result.totalItems() + actualPageSize - 1) / actualPageSize)
+                .totalExact(true)
+                .hasNext(offset + result.items().size() < result.totalItems())
+                .build();
+    }
+
+    public PagedResponse<ProductResponse> listProductsByCursor(
+            String cursor,
+            Integer pageSize,
+            ProductFilter filter,
+            String fields
+    ) {
+        log.debug("Listing products - cursor: {}, pageSize: {}, filter: {}, fields: {}",
+                cursor, pageSize, filter, fields);
+
+        int actualPageSize = resolvePageSize(pageSize);
+        Set<ProductField> selectedFields = ProductField.parse(fields);
+        checkTags(filter);
+        boolean withDescription = selectedFields.contains(ProductField.DESCRIPTION);
+        ProductCursor position = (cursor == null || cursor.isBlank()) ? null : ProductCursor.decode(cursor);
+        long start = System.nanoTime();
+        // Fetch one extra row to learn whether another page exists without counting
+        List<ProductSummary> products = productRepository.searchProductsAfter(filter.criteria(),
+                position != null ? position.createdAt() : null, position != null ? position.id() : null,
+                withDescription, actualPageSize + 1);
+        catalogMetrics.recordSearch(true, start);
+
+        boolean hasNext = products.size() > actualPageSize;
+        List<ProductSummary> pageContent = hasNext ? products.subList(0, actualPageSize) : products;
+
+        return PagedResponse.<ProductResponse>builder()
+                .items(toResponses(pageContent, selectedFields))
+                .pageSize(actualPageSize)
+                .nextCursor(hasNext ? ProductCursor.of(pageContent.get(actualPageSize - 1)).encode() : null)
                 .build();
     }
 
     public ProductResponse getProductById(Long id) {
         log.debug("Getting product by id: {}", id);
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
-        return productMapper.toResponse(product);
+        return productCache.get(id, key -> {
+            long start = System.nanoTime();
+            Optional<Product> product = productRepository.findById(key);
+            catalogMetrics.recordFindById(start);
+            return productMapper.toResponse(product
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + key)));
+        });
     }
 
     public ProductResponse getProductByIdString(String idString) {
-        Long id = parseProductId(idString);
+        Long id = ProductIds.parse(idString);
         return getProductById(id);
     }
 
+    /**
+     * Looks up several products at once. Cached products are served from memory and the rest
+     * are loaded with one IN query. Items follow the request order; malformed or unknown ids
+     * get a {@code PRODUCT_NOT_FOUND} marker instead of failing the whole batch.
+     */
+    public ProductBatchResponse getProductsByIds(List<String> idStrings) {
+        log.debug("Getting products by ids: {}", idStrings);
+        if (idStrings == null || idStrings.isEmpty()) {
+            throw new InvalidRequestException("At least one id is required");
+        }
+        if (idStrings.size() > maxBatchIds) {
+            throw new InvalidRequestException("At most " + maxBatchIds + " ids are allowed per request");
+        }
+
+        List<Long> parsed = new ArrayList<>(idStrings.size());
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (String idString : idStrings) {
+            Long id = ProductIds.tryParse(idString.trim());
+            parsed.add(id);
+            if (id != null) {
+                distinct.add(id);
+            }
+        }
+
+        Map<Long, ProductResponse> found = distinct.isEmpty()
+                ? Map.of()
+                : productCache.getAll(distinct, this::loadProducts);
+
+        List<ProductBatchResponse.Item> items = new ArrayList<>(idStrings.size());
+        for (int i = 0; i < idStrings.size(); i++) {
+            ProductResponse product = parsed.get(i) != null ? found.get(parsed.get(i)) : null;
+            items.add(ProductBatchResponse.Item.builder()
+                    .id(idStrings.get(i).trim())
+                    .product(product)
+                    .error(product == null ? "PRODUCT_NOT_FOUND" : null)
+                    .build());
+        }
+        return ProductBatchResponse.builder().items(items).build();
+    }
+
+    /**
+     * Resolves only the product's change marker, from the cache when possible and otherwise
+     * with a single-column lookup, so conditional GETs can be answered without loading the row.
+     */
+    public ProductVersion getProductVersion(String idString) {
+        Long id = ProductIds.parse(idString);
+        ProductResponse cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return new ProductVersion(cached.getId(), cached.getVersion(), cached.getUpdatedAt());
+        }
+        ProductRepository.RowVersion row = productRepository.findRowVersionById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        return new ProductVersion("prod_" + id, row.getVersion(), row.getUpdatedAt());
+    }
+
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
         log.debug("Creating product with SKU: {}", request.getSku());
 
-        if (productRepository.existsBySku(request.getSku())) {
-            throw new DuplicateSkuException("Product with SKU '" + request.getSku() + "' already exists");
-        }
-
+        // No existence pre-check: the unique index rejects duplicates in the same round trip
         Product product = productMapper.toEntity(request);
-        Product savedProduct = productRepository.save(product);
+        Product savedProduct = flush(product);
+        ProductResponse response = productMapper.toResponse(savedProduct);
+        productOutbox.productChanged(ProductChangeType.CREATED, savedProduct.getId(), response);
+        productCache.evict(savedProduct.getId());
         log.info("Created product with id: {} and SKU: {}", savedProduct.getId(), savedProduct.getSku());
-        return productMapper.toResponse(savedProduct);
+        return response;
     }
 
+    /**
+     * Replaces every field of the product.
+     *
+     * @param precondition checked against the product as loaded in this transaction, typically
+     *                     an {@code If-Match} ETag; {@code null} for an unconditional update
+     */
     @Transactional
-    public ProductResponse updateProduct(Long id, ProductRequest request) {
+    public ProductResponse updateProduct(Long id, ProductRequest request, Predicate<ProductVersion> precondition) {
         log.debug("Updating product with id: {}", id);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        Product product = loadForUpdate(id, precondition);
+        productMapper.updateEntity(product, request);
+        return saveUpdate(product, precondition);
+    }
 
-        // Check if SKU is being changed to an existing one
-        if (!product.getSku().equals(request.getSku()) &&
-                productRepository.existsBySku(request.getSku())) {
-            throw new DuplicateSkuException("Product with SKU '" + request.getSku() + "' already exists");
-        }
+    @Transactional
+    public ProductResponse updateProductByIdString(
+            String idString, ProductRequest request, Predicate<ProductVersion> precondition) {
+        Long id = ProductIds.parse(idString);
+        return updateProduct(id, request, precondition);
+    }
 
-        productMapper.updateEntity(product, request);
-        Product updatedProduct = productRepository.save(product);
-        log.info("Updated product with id: {}", updatedProduct.getId());
-        return productMapper.toResponse(updatedProduct);
+    /**
+     * Changes only the fields present in the request; the UPDATE lists only those columns.
+     */
+    @Transactional
+    public ProductResponse patchProduct(Long id, ProductPatchRequest request, Predicate<ProductVersion> precondition) {
+        log.debug("Patching product with id: {}", id);
+
+        Product product = loadForUpdate(id, precondition);
+        productMapper.applyPatch(product, request);
+        return saveUpdate(product, precondition);
     }
 
     @Transactional
-    public ProductResponse updateProductByIdString(String idString, ProductRequest request) {
-        Long id = parseProductId(idString);
-        return updateProduct(id, request);
+    public ProductResponse patchProductByIdString(
+            String idString, ProductPatchRequest request, Predicate<ProductVersion> precondition) {
+        Long id = ProductIds.parse(idString);
+        return patchProduct(id, request, precondition);
+    }
+
+    /**
+     * Creates the product with this SKU or replaces all of its fields, in one statement on
+     * PostgreSQL. Repeating the same request leaves the same product.
+     */
+    @Transactional
+    public ProductUpsert upsertProductBySku(String sku, ProductRequest request) {
+        log.debug("Upserting product with SKU: {}", sku);
+
+        if (!sku.equals(request.getSku())) {
+            throw new InvalidRequestException("SKU in the body must match the path");
+        }
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        ProductUpsertRepository.UpsertedRow row = productUpsertRepository.upsert(sku, request, now);
+        Product product = productMapper.toEntity(request);
+        product.setId(row.id());
+        product.setCreatedAt(row.createdAt());
+        product.setUpdatedAt(now);
+        product.setVersion(row.version());
+        ProductResponse response = productMapper.toResponse(product);
+
+        productOutbox.productChanged(row.inserted() ? ProductChangeType.CREATED : ProductChangeType.UPDATED,
+                row.id(), response);
+        productCache.evict(row.id());
+        log.info("{} product with id: {} and SKU: {}", row.inserted() ? "Created" : "Updated", row.id(), sku);
+        return new ProductUpsert(response, row.inserted());
     }
 
     @Transactional
@@ -126,12 +370,14 @@ public class ProductService {
         }
 
         productRepository.deleteById(id);
+        productOutbox.productDeleted(id);
+        productCache.evict(id);
         log.info("Deleted product with id: {}", id);
     }
 
     @Transactional
     public void deleteProductByIdString(String idString) {
-        Long id = parseProductId(idString);
+        Long id = ProductIds.parse(idString);
         deleteProduct(id);
     }
 
@@ -139,33 +385,277 @@ public class ProductService {
     public boolean decrementInventory(Long productId, Integer quantity) {
         log.debug("Decrementing inventory for product {} by {}", productId, quantity);
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + productId));
-
-        if (product.getQuantity() < quantity) {
-            log.warn("Insufficient stock for product {}. Available: {}, Requested: {}",
-                    productId, product.getQuantity(), quantity);
+        // Single conditional UPDATE: no read-modify-write window for concurrent checkouts
+        long start = System.nanoTime();
+        int updated = productRepository.decrementQuantity(productId, quantity, Instant.now());
+        catalogMetrics.recordDecrement(updated > 0, start);
+        if (updated == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ProductNotFoundException("Product not found with id: " + productId);
+            }
+            log.warn("Insufficient stock for product {}. Requested: {}", productId, quantity);
             return false;
         }
 
-        product.setQuantity(product.getQuantity() - quantity);
-        product.setInStock(product.getQuantity() > 0);
-        productRepository.save(product);
-        log.info("Decremented inventory for product {}. New quantity: {}", productId, product.getQuantity());
+        productOutbox.inventoryChanged(productId, -quantity);
+        productCache.evict(productId);
+        log.info("Decremented inventory for product {} by {}", productId, quantity);
         return true;
     }
 
-    private Long parseProductId(String idString) {
+    /**
+     * Reserves every item of a cart in one transaction. Rows are updated in ascending id
+     * order so concurrent reservations always take row locks in the same sequence.
+     * Any unavailable item rolls back the whole reservation. The stock stays taken until the
+     * reservation is released, or, with {@code inventory.reservation.ttl}, until it expires
+     * unconfirmed.
+     */
+    @Transactional
+    public ReservationResponse reserveInventory(ReservationRequest request) {
+        log.debug("Reserving inventory for {} items", request.getItems().size());
+
+        Map<Long, Integer> quantities = new TreeMap<>();
         try {
-            // Handle "prod_123" format
-            if (idString.startsWith("prod_")) {
-                return Long.parseLong(idString.substring(5));
+            for (ReservationRequest.Item item : request.getItems()) {
+                quantities.merge(ProductIds.parse(item.getProductId()), item.getQuantity(), Math::addExact);
             }
-            // Handle numeric ID
-            return Long.parseLong(idString);
+        } catch (ArithmeticException e) {
+            // A wrapped total would pass the stock check and add stock instead of taking it
+            throw new InvalidRequestException("Total quantity per product is too large");
+        }
+
+        List<ReservationResponse.ReservedItem> reserved = new ArrayList<>(quantities.size());
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long productId = entry.getKey();
+            if (!decrementInventory(productId, entry.getValue())) {
+                throw new InsufficientStockException("prod_" + productId, entry.getValue());
+            }
+            reserved.add(ReservationResponse.ReservedItem.builder()
+                    .productId("prod_" + productId)
+                    .quantity(entry.getValue())
+                    .build());
+        }
+
+        InventoryReservation reservation = reservationRepository.save(InventoryReservation.builder()
+                .status(ReservationStatus.HELD)
+                .items(new HashMap<>(quantities))
+                .expiresAt(reservationTtl.isZero() ? null : Instant.now().plus(reservationTtl))
+                .build());
+        log.info("Reserved inventory for {} products as reservation {}", reserved.size(), reservation.getId());
+        return ReservationResponse.builder()
+                .reservationId(RESERVATION_PREFIX + reservation.getId())
+                .expiresAt(reservation.getExpiresAt())
+                .items(reserved)
+                .build();
+    }
+
+    /**
+     * Marks a held reservation as turned into an order, so it no longer expires. Confirming
+     * twice is harmless; confirming a released or expired reservation fails.
+     */
+    @Transactional
+    public void confirmReservation(String reservationId) {
+        Long id = parseReservationId(reservationId);
+        if (reservationRepository.transition(id, ReservationStatus.HELD, ReservationStatus.CONFIRMED) == 0
+                && findReservationStatus(id) == ReservationStatus.RELEASED) {
+            throw new ReservationStateException("Reservation " + reservationId + " has been released or expired");
+        }
+        log.info("Confirmed reservation {}", id);
+    }
+
+    /**
+     * Returns a held reservation's stock, e.g. after an abandoned checkout or a failed payment.
+     * Releasing twice returns the stock once; releasing a confirmed reservation fails.
+     */
+    @Transactional
+    public void releaseReservation(String reservationId) {
+        Long id = parseReservationId(reservationId);
+        if (reservationRepository.transition(id, ReservationStatus.HELD, ReservationStatus.RELEASED) == 0) {
+            if (findReservationStatus(id) == ReservationStatus.CONFIRMED) {
+                throw new ReservationStateException("Reservation " + reservationId + " has been confirmed");
+            }
+            return;
+        }
+        restock(id);
+        log.info("Released reservation {}", id);
+    }
+
+    /**
+     * Releases up to {@code limit} held reservations whose TTL ran out before {@code now}.
+     *
+     * @return number of reservations released
+     */
+    @Transactional
+    public int expireReservations(Instant now, int limit) {
+        int released = 0;
+        for (Long id : reservationRepository.findExpiredIds(now, Limit.of(limit))) {
+            // A confirm or release that got there first wins
+            if (reservationRepository.transition(id, ReservationStatus.HELD, ReservationStatus.RELEASED) > 0) {
+                restock(id);
+                released++;
+            }
+        }
+        return released;
+    }
+
+    private void restock(Long reservationId) {
+        InventoryReservation reservation = reservationRepository.findById(reservationId).orElseThrow();
+        // Copied first, since each UPDATE clears the persistence context; ascending ids as when reserving
+        Map<Long, Integer> quantities = new TreeMap<>(reservation.getItems());
+        Instant now = Instant.now();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Long productId = entry.getKey();
+            if (productRepository.incrementQuantity(productId, entry.getValue(), now) > 0) {
+                productOutbox.inventoryChanged(productId, entry.getValue());
+                productCache.evict(productId);
+            }
+        }
+    }
+
+    private ReservationStatus findReservationStatus(Long id) {
+        return reservationRepository.findStatusById(id)
+                .orElseThrow(() -> new ReservationNotFoundException("Reservation not found with id: res_" + id));
+    }
+
+    private static Long parseReservationId(String reservationId) {
+        try {
+            return Long.parseLong(reservationId.startsWith(RESERVATION_PREFIX)
+                    ? reservationId.substring(RESERVATION_PREFIX.length())
+                    : reservationId);
         } catch (NumberFormatException e) {
-            throw new ProductNotFoundException("Invalid product ID format: " + idString);
+            throw new ReservationNotFoundException("Invalid reservation ID format: " + reservationId);
+        }
+    }
+
+    private Product loadForUpdate(Long id, Predicate<ProductVersion> precondition) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        if (precondition != null && !precondition.test(
+                new ProductVersion("prod_" + id, product.getVersion(), product.getUpdatedAt()))) {
+            throw new PreconditionFailedException("Product prod_" + id + " has been modified since it was read");
+        }
+        return product;
+    }
+
+    private Product flush(Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException e) {
+            if (DuplicateSkuException.isSkuViolation(e)) {
+                throw new DuplicateSkuException("Product with SKU '" + product.getSku() + "' already exists");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Flushes the version-checked UPDATE before anything else is written, so a concurrent edit
+     * committed after {@link #loadForUpdate} fails this one instead of being overwritten.
+     */
+    private ProductResponse saveUpdate(Product product, Predicate<ProductVersion> precondition) {
+        Product updatedProduct;
+        try {
+            updatedProduct = flush(product);
+        } catch (OptimisticLockingFailureException e) {
+            if (precondition != null) {
+                throw new PreconditionFailedException(
+                        "Product prod_" + product.getId() + " has been modified since it was read");
+            }
+            throw e;
+        }
+        ProductResponse response = productMapper.toResponse(updatedProduct);
+        productOutbox.productChanged(ProductChangeType.UPDATED, updatedProduct.getId(), response);
+        productCache.evict(updatedProduct.getId());
+        log.info("Updated product with id: {}", updatedProduct.getId());
+        return response;
+    }
+
+    private Slice<ProductSummary> findProductPage(
+            ProductFilter filter, ProductSort sort, boolean withDescription, int page, int pageSize) {
+        ProductListingRepository.Criteria criteria = filter.criteria();
+        if (fullTextSearchEnabled && filter.hasQuery()) {
+            Slice<Long> ids = sort == ProductSort.RELEVANCE
+                    ? productRepository.fullTextSearchIdsByRelevance(criteria, PageRequest.of(page, pageSize))
+                    : productRepository.fullTextSearchIds(criteria,
+                            PageRequest.of(page, pageSize, sort.columnOrder()));
+            return loadSummaries(ids, withDescription);
         }
+        if (filter.hasQuery() && sort == ProductSort.RELEVANCE) {
+            // Ranked queries carry their own ORDER BY
+            return productRepository.searchProductsByRelevance(criteria, withDescription,
+                    PageRequest.of(page, pageSize));
+        }
+        return productRepository.searchProducts(criteria, withDescription,
+                PageRequest.of(page, pageSize, sort.order()));
+    }
+
+    private void checkTags(ProductFilter filter) {
+        if (filter.tags().size() > maxTags) {
+            throw new InvalidRequestException("At most " + maxTags + " tags are allowed per request");
+        }
+    }
+
+    /**
+     * Loads listing rows for a page of ids, keeping the order the ids were ranked in.
+     */
+    private Slice<ProductSummary> loadSummaries(Slice<Long> ids, boolean withDescription) {
+        if (ids.isEmpty()) {
+            return new SliceImpl<>(List.of(), ids.getPageable(), ids.hasNext());
+        }
+        Map<Long, ProductSummary> byId = productRepository.findSummariesByIdIn(ids.getContent(), withDescription)
+                .stream()
+                .collect(Collectors.toMap(ProductSummary::id, Function.identity()));
+        List<ProductSummary> ordered = ids.getContent().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new SliceImpl<>(ordered, ids.getPageable(), ids.hasNext());
+    }
+
+    private List<ProductResponse> toResponses(List<ProductSummary> summaries, Set<ProductField> fields) {
+        Map<Long, List<String>> tags = fields.contains(ProductField.TAGS)
+                ? findTags(summaries)
+                : Map.of();
+
+        List<ProductResponse> items = new ArrayList<>(summaries.size());
+        for (ProductSummary summary : summaries) {
+            ProductResponse response = productMapper.toResponse(
+                    summary, tags.getOrDefault(summary.id(), new ArrayList<>()));
+            items.add(ProductField.retain(response, fields));
+        }
+        return items;
+    }
+
+    private Map<Long, ProductResponse> loadProducts(Set<? extends Long> ids) {
+        long start = System.nanoTime();
+        List<ProductSummary> summaries = productRepository.findSummariesByIdIn(List.copyOf(ids), true);
+        Map<Long, List<String>> tags = findTags(summaries);
+        catalogMetrics.recordFindByIds(start);
+
+        Map<Long, ProductResponse> products = new HashMap<>();
+        for (ProductSummary summary : summaries) {
+            products.put(summary.id(),
+                    productMapper.toResponse(summary, tags.getOrDefault(summary.id(), new ArrayList<>())));
+        }
+        return products;
+    }
+
+    private Map<Long, List<String>> findTags(List<ProductSummary> summaries) {
+        if (summaries.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = summaries.stream().map(ProductSummary::id).toList();
+        Map<Long, List<String>> tags = new HashMap<>();
+        for (Object[] row : productRepository.findTagsByProductIdIn(ids)) {
+            tags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+        return tags;
+    }
+
+    private int resolvePageSize(Integer pageSize) {
+        return (pageSize != null && pageSize > 0)
+                ? Math.min(pageSize, maxPageSize)
+                : defaultPageSize;
     }
 }
 
@@ -0,0 +1,198 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.cache.ProductSnapshot;
+import com.voguethreads.catalog.config.ReplicaRoutingDataSource;
+import com.voguethreads.catalog.dto.ProductChangeResponse;
+import com.voguethreads.catalog.repository.ProductChangeEventRepository;
+import com.voguethreads.catalog.repository.ProductRepository;
+import com.voguethreads.catalog.repository.ProductSnapshotRepository;
+import com.voguethreads.catalog.repository.ProductSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Keeps the in-memory {@link ProductSnapshot} that anonymous browse listings are served from.
+ *
+ * <p>The snapshot is built from one scan of the catalog, then patched from the change feed:
+ * each poll reloads the products named by new feed events and swaps in a snapshot with them in its
+ * overlay, which is folded into the columns once it holds {@code snapshot.max-overlay-rows}. Reloading
+ * rather than applying the events makes patching idempotent, so it does not matter whether an
+ * event published during the scan is already reflected in it, and it picks up writes from every
+ * instance. Text replaced by patches is only reclaimed by the next full rebuild. Scans, feed
+ * reads and reloads go to the primary: the snapshot outlives any replica lag it captured.
+ *
+ * <p>Until the first build finishes {@link #current()} is null and listings use the database.
+ */
+@Service
+@ConditionalOnProperty(name = "snapshot.enabled", havingValue = "true")
+@Slf4j
+public class ProductSnapshotService {
+
+    private final ProductSnapshotRepository snapshotRepository;
+    private final ProductRepository productRepository;
+    private final ProductChangeEventRepository eventRepository;
+    private final ProductChangeService changeService;
+    private final long rebuildIntervalNanos;
+    private final int batchSize;
+    private final int maxOverlayRows;
+
+    private volatile ProductSnapshot snapshot;
+    private volatile ProductSnapshot.MemoryUsage memoryUsage = ProductSnapshot.empty().memoryUsage();
+    // Feed position the snapshot reflects, and when it was last built from a full scan
+    private long position;
+    private long builtAt;
+
+    public ProductSnapshotService(
+            ProductSnapshotRepository snapshotRepository,
+            ProductRepository productRepository,
+            ProductChangeEventRepository eventRepository,
+            ProductChangeService changeService,
+            MeterRegistry meterRegistry,
+            @Value("${snapshot.rebuild-interval:1h}") Duration rebuildInterval,
+            @Value("${snapshot.batch-size:500}") int batchSize,
+            @Value("${snapshot.max-overlay-rows:1024}") int maxOverlayRows
+    ) {
+        this.snapshotRepository = snapshotRepository;
+        this.productRepository = productRepository;
+        this.eventRepository = eventRepository;
+        this.changeService = changeService;
+        this.rebuildIntervalNanos = rebuildInterval.toNanos();
+        this.batchSize = batchSize;
+        this.maxOverlayRows = maxOverlayRows;
+
+        Gauge.builder("catalog.snapshot.rows", this, service -> service.memoryUsage.rows())
+                .description("Products in the browse snapshot")
+                .register(meterRegistry);
+        registerBytes(meterRegistry, "numeric", ProductSnapshot.MemoryUsage::numericBytes);
+        registerBytes(meterRegistry, "text", ProductSnapshot.MemoryUsage::textBytes);
+        registerBytes(meterRegistry, "tags", ProductSnapshot.MemoryUsage::tagBytes);
+        registerBytes(meterRegistry, "dictionary", ProductSnapshot.MemoryUsage::dictionaryBytes);
+        registerBytes(meterRegistry, "index", ProductSnapshot.MemoryUsage::indexBytes);
+        registerBytes(meterRegistry, "overlay", ProductSnapshot.MemoryUsage::overlayBytes);
+    }
+
+    /**
+     * The snapshot to serve from, or null while the first one is being built.
+     */
+    public ProductSnapshot current() {
+        return snapshot;
+    }
+
+    public ProductSnapshot.MemoryUsage memoryUsage() {
+        return memoryUsage;
+    }
+
+    /**
+     * Builds the first snapshot, rebuilds it once it is older than the rebuild interval and
+     * otherwise applies the changes published since the last run.
+     */
+    @Scheduled(fixedDelayString = "${snapshot.poll-interval-ms:1000}")
+    public synchronized void refresh() {
+        if (snapshot == null || System.nanoTime() - builtAt >= rebuildIntervalNanos) {
+            rebuild();
+        } else {
+            applyChanges();
+        }
+    }
+
+    public synchronized void rebuild() {
+        ReplicaRoutingDataSource.onPrimary(() -> {
+            build();
+            return null;
+        });
+    }
+
+    private void build() {
+        long start = System.nanoTime();
+        // Read before the scan: every event up to here belongs to a write the scan will see
+        Long maxPosition = eventRepository.findMaxPosition();
+        ProductSnapshot.Builder builder = ProductSnapshot.builder(snapshot != null ? snapshot.size() : 0);
+        snapshotRepository.forEachProduct(builder::add);
+        publish(builder.build());
+        position = maxPosition != null ? maxPosition : 0;
+        builtAt = System.nanoTime();
+        log.info("Built product snapshot of {} rows ({} KB) in {} ms", memoryUsage.rows(),
+                memoryUsage.totalBytes() / 1024, (builtAt - start) / 1_000_000);
+    }
+
+    /**
+     * Patches the snapshot with every product changed since it was built or last patched.
+     *
+     * @return number of products reloaded
+     */
+    public synchronized int applyChanges() {
+        if (snapshot == null) {
+            return 0;
+        }
+        return ReplicaRoutingDataSource.onPrimary(this::applyPendingChanges);
+    }
+
+    private int applyPendingChanges() {
+        int total = 0;
+        List<ProductChangeResponse> changes;
+        do {
+            changes = changeService.changesAfter(position, batchSize);
+            if (changes.isEmpty()) {
+                break;
+            }
+            Set<Long> ids = new LinkedHashSet<>();
+            for (ProductChangeResponse change : changes) {
+                ids.add(ProductIds.parse(change.getProductId()));
+            }
+            patch(ids);
+            position = changes.get(changes.size() - 1).getPosition();
+            total += ids.size();
+        } while (changes.size() == batchSize);
+
+        if (total > 0) {
+            log.debug("Patched product snapshot with {} products, now at feed position {}", total, position);
+        }
+        return total;
+    }
+
+    private void patch(Set<Long> ids) {
+        List<ProductSummary> summaries = productRepository.findSummariesByIdIn(ids, true);
+        Map<Long, List<String>> tags = new HashMap<>();
+        if (!summaries.isEmpty()) {
+            for (Object[] row : productRepository.findTagsByProductIdIn(ids)) {
+                tags.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+            }
+        }
+
+        List<ProductSnapshot.Row> changed = new ArrayList<>(summaries.size());
+        Set<Long> removed = new LinkedHashSet<>(ids);
+        for (ProductSummary summary : summaries) {
+            changed.add(new ProductSnapshot.Row(summary, tags.getOrDefault(summary.id(), List.of())));
+            removed.remove(summary.id());
+        }
+        publish(snapshot.withChanges(changed, removed, maxOverlayRows));
+    }
+
+    private void publish(ProductSnapshot next) {
+        memoryUsage = next.memoryUsage();
+        snapshot = next;
+    }
+
+    private void registerBytes(MeterRegistry meterRegistry, String part,
+                               ToDoubleFunction<ProductSnapshot.MemoryUsage> bytes) {
+        Gauge.builder("catalog.snapshot.bytes", this, service -> bytes.applyAsDouble(service.memoryUsage))
+                .description("Approximate heap used by the browse snapshot")
+                .tag("part", part)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+}
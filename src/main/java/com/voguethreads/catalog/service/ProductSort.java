@@ -0,0 +1,50 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Locale;
+
+/**
+ * Sort orders accepted by the product listing endpoint. Each order ends on the id so pages
+ * are stable, and matches a listing index (see the V2 and V9 migrations) so the database reads
+ * rows in order instead of sorting every match.
+ */
+public enum ProductSort {
+
+    NEWEST(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"))),
+    PRICE_ASC(Sort.by(Sort.Order.asc("amount"), Sort.Order.asc("id"))),
+    PRICE_DESC(Sort.by(Sort.Order.desc("amount"), Sort.Order.desc("id"))),
+    NAME(Sort.by(Sort.Order.asc("name"), Sort.Order.asc("id"))),
+    // Ranked queries carry their own ORDER BY; without a query this is NEWEST
+    RELEVANCE(NEWEST.order);
+
+    private final Sort order;
+
+    ProductSort(Sort order) {
+        this.order = order;
+    }
+
+    public static ProductSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+        try {
+            return ProductSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported sort: " + value);
+        }
+    }
+
+    /** The order by entity property, for JPQL queries. */
+    public Sort order() {
+        return order;
+    }
+
+    /** The order by column name, for native queries. */
+    public Sort columnOrder() {
+        return Sort.by(order.stream()
+                .map(o -> o.getProperty().equals("createdAt") ? o.withProperty("created_at") : o)
+                .toList());
+    }
+}
@@ -0,0 +1,9 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.ProductResponse;
+
+/**
+ * Result of an upsert by SKU: the product as written, and whether it was newly created.
+ */
+public record ProductUpsert(ProductResponse product, boolean created) {
+}
@@ -0,0 +1,10 @@
+package com.voguethreads.catalog.service;
+
+import java.time.Instant;
+
+/**
+ * Minimal change marker for a product, enough to answer conditional requests: the
+ * optimistic-lock version for ETags and the modification time for {@code Last-Modified}.
+ */
+public record ProductVersion(String id, Long version, Instant updatedAt) {
+}
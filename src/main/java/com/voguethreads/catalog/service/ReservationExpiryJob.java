@@ -0,0 +1,50 @@
+package com.voguethreads.catalog.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Returns the stock of reservations that were neither confirmed nor released before their
+ * TTL ran out. Does nothing while {@code inventory.reservation.ttl} is zero, since reservations
+ * then carry no expiry.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryJob {
+
+    private final ProductService productService;
+    private final int batchSize;
+
+    public ReservationExpiryJob(
+            ProductService productService,
+            @Value("${inventory.reservation.expiry-batch-size:100}") int batchSize
+    ) {
+        this.productService = productService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Releases expired reservations one batch per transaction until none are left.
+     *
+     * @return number of reservations released
+     */
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry-interval-ms:60000}")
+    public int expire() {
+        Instant now = Instant.now();
+        int total = 0;
+        int released;
+        do {
+            released = productService.expireReservations(now, batchSize);
+            total += released;
+        } while (released == batchSize);
+
+        if (total > 0) {
+            log.info("Released {} expired reservations", total);
+        }
+        return total;
+    }
+}
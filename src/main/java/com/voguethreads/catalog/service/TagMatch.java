@@ -0,0 +1,27 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.exception.InvalidRequestException;
+
+import java.util.Locale;
+
+/**
+ * How the listing {@code tags} filter combines several tags.
+ */
+public enum TagMatch {
+
+    /** Products with at least one of the tags. */
+    ANY,
+    /** Products with every one of the tags. */
+    ALL;
+
+    public static TagMatch from(String value) {
+        if (value == null || value.isBlank()) {
+            return ANY;
+        }
+        try {
+            return TagMatch.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported tagMatch: " + value);
+        }
+    }
+}
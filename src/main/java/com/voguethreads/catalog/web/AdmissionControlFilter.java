@@ -0,0 +1,158 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voguethreads.catalog.dto.ErrorResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of requests executing at once when Tomcat runs on virtual threads.
+ *
+ * <p>Virtual threads remove the worker-pool limit, so a burst would otherwise pile thousands
+ * of threads onto Hikari connection acquisition. Permits default to the connections available,
+ * the primary pool size plus the replica pool size when reads are routed to a replica;
+ * requests that cannot get a permit within the timeout are rejected with 503.
+ *
+ * <p>A permit covers the request dispatch only. An async request such as the SSE change stream
+ * gives its permit back when the dispatch returns, so idle streams do not hold the limit; the
+ * work it later does on other threads takes its own permits through {@link #acquire()}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer rejectedTimer;
+
+    public AdmissionControlFilter(
+            @Value("${web.admission.max-concurrent:0}") int maxConcurrent,
+            @Value("${web.admission.timeout:${spring.datasource.hikari.connection-timeout:20000}ms}") Duration timeout,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int primaryPoolSize,
+            @Value("${datasource.replica.enabled:false}") boolean replicaEnabled,
+            @Value("${datasource.replica.hikari.maximum-pool-size:10}") int replicaPoolSize,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        int poolSize = primaryPoolSize + (replicaEnabled ? replicaPoolSize : 0);
+        if (maxConcurrent <= 0) {
+            maxConcurrent = poolSize;
+        }
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.timeoutNanos = timeout.toNanos();
+        this.objectMapper = objectMapper;
+        this.waitTimer = Timer.builder("catalog.admission.wait")
+                .description("Time requests spend queued for an execution permit")
+                .tag("outcome", "admitted")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedTimer = Timer.builder("catalog.admission.wait")
+                .description("Time requests spend queued for an execution permit")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("catalog.admission.waiting", waiting, AtomicInteger::get)
+                .description("Requests currently queued for an execution permit")
+                .register(meterRegistry);
+        Gauge.builder("catalog.admission.available", permits, Semaphore::availablePermits)
+                .description("Execution permits currently free")
+                .register(meterRegistry);
+
+        if (maxConcurrent > poolSize) {
+            log.warn("Admission limit {} exceeds Hikari pool sizes {}; excess requests will queue on the pools",
+                    maxConcurrent, poolSize);
+        }
+        log.info("Virtual-thread admission control enabled with {} permits", maxConcurrent);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.equals("/health") || path.startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        if (!acquire()) {
+            reject(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Waits up to the admission timeout for a permit. Work running outside a request dispatch
+     * uses this directly; every {@code true} result must be paired with {@link #release()}.
+     */
+    public boolean acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        waiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        (acquired ? waitTimer : rejectedTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return acquired;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        String traceId = UUID.randomUUID().toString();
+        log.warn("Request rejected by admission control - traceId: {}", traceId);
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code("SERVICE_UNAVAILABLE")
+                .message("Service is at capacity, please retry")
+                .traceId(traceId)
+                .build();
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder().error(errorDetail).build());
+    }
+}
@@ -0,0 +1,96 @@
+package com.voguethreads.catalog.web;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns Hikari connection wait times into the fraction of public reads to shed.
+ *
+ * <p>Every sample interval the mean connection-acquire time since the previous sample is read
+ * from {@code hikaricp.connections.acquire}. While it stays above the threshold the shed
+ * fraction grows by one step per interval; once it falls below, the fraction shrinks the same
+ * way, so shedding ramps up and releases gradually instead of flapping. Sampling happens on the
+ * request path, by whichever request first notices the interval has passed.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true")
+@Slf4j
+public class PoolPressure {
+
+    private final MeterRegistry meterRegistry;
+    private final long thresholdNanos;
+    private final long sampleIntervalNanos;
+    private final double step;
+    private final double maxFraction;
+    private final AtomicLong nextSampleAt;
+
+    private volatile long lastCount;
+    private volatile double lastTotalNanos;
+    private volatile double recentWaitNanos;
+    private volatile double shedFraction;
+
+    public PoolPressure(
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.shed.pool-wait-threshold:50ms}") Duration threshold,
+            @Value("${rate-limit.shed.sample-interval:1s}") Duration sampleInterval,
+            @Value("${rate-limit.shed.step:0.1}") double step,
+            @Value("${rate-limit.shed.max-fraction:0.9}") double maxFraction
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleIntervalNanos = sampleInterval.toNanos();
+        this.step = step;
+        this.maxFraction = maxFraction;
+        this.nextSampleAt = new AtomicLong(System.nanoTime());
+        Gauge.builder("catalog.loadshed.fraction", this, pressure -> pressure.shedFraction)
+                .description("Fraction of anonymous reads currently shed")
+                .register(meterRegistry);
+        Gauge.builder("catalog.loadshed.pool-wait", this, pressure -> pressure.recentWaitNanos / 1_000_000.0)
+                .description("Mean connection acquire time over the last sample interval, in milliseconds")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public double shedFraction() {
+        long now = System.nanoTime();
+        long next = nextSampleAt.get();
+        if (now - next >= 0 && nextSampleAt.compareAndSet(next, now + sampleIntervalNanos)) {
+            sample();
+        }
+        return shedFraction;
+    }
+
+    private void sample() {
+        long count = 0;
+        double totalNanos = 0;
+        for (Timer timer : meterRegistry.find("hikaricp.connections.acquire").timers()) {
+            count += timer.count();
+            totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+        }
+        long acquisitions = count - lastCount;
+        double waitNanos = acquisitions > 0 ? (totalNanos - lastTotalNanos) / acquisitions : 0;
+        lastCount = count;
+        lastTotalNanos = totalNanos;
+        recentWaitNanos = waitNanos;
+
+        double previous = shedFraction;
+        shedFraction = waitNanos > thresholdNanos
+                ? Math.min(maxFraction, previous + step)
+                : Math.max(0, previous - step);
+        if (previous == 0 && shedFraction > 0) {
+            log.warn("Connection wait {}ms above threshold, shedding anonymous reads",
+                    Math.round(waitNanos / 1_000_000));
+        } else if (previous > 0 && shedFraction == 0) {
+            log.info("Connection wait back under threshold, load shedding stopped");
+        }
+    }
+}
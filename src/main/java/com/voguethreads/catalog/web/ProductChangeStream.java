@@ -0,0 +1,183 @@
+package com.voguethreads.catalog.web;
+
+import com.voguethreads.catalog.dto.ProductChangeResponse;
+import com.voguethreads.catalog.service.ProductChangeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Server-sent events variant of the product change feed.
+ *
+ * <p>A new subscriber first catches up from the feed table on a worker thread, then receives
+ * what a single poller per instance finds, so the database sees one query per interval however
+ * many clients are connected. Event ids are feed positions, so a reconnecting EventSource
+ * resumes through {@code Last-Event-ID}.
+ *
+ * <p>Catch-up runs after the subscribing request has left admission control, so with virtual
+ * threads each catch-up batch takes its own {@link AdmissionControlFilter} permit. A stream
+ * that cannot get one is closed, and the client reconnects from its last event.
+ */
+@Component
+@Slf4j
+public class ProductChangeStream {
+
+    private final ProductChangeService changeService;
+    private final TaskExecutor taskExecutor;
+    private final ObjectProvider<AdmissionControlFilter> admissionControl;
+    private final long timeoutMillis;
+    private final int batchSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Highest position fanned out so far, -1 while nobody is subscribed
+    private long watermark = -1;
+
+    public ProductChangeStream(
+            ProductChangeService changeService,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            ObjectProvider<AdmissionControlFilter> admissionControl,
+            @Value("${changes.stream.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${changes.stream.batch-size:100}") int batchSize
+    ) {
+        this.changeService = changeService;
+        this.taskExecutor = taskExecutor;
+        this.admissionControl = admissionControl;
+        this.timeoutMillis = timeoutMillis;
+        this.batchSize = batchSize;
+    }
+
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribe(since, emitter);
+        return emitter;
+    }
+
+    void subscribe(long since, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, since);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        log.debug("Change stream subscriber added at position {} ({} connected)", since, subscribers.size());
+        taskExecutor.execute(subscriber::catchUp);
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${changes.stream.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        if (subscribers.isEmpty()) {
+            watermark = -1;
+            return;
+        }
+        if (watermark < 0) {
+            watermark = subscribers.stream().mapToLong(Subscriber::position).min().orElse(0);
+        }
+
+        List<ProductChangeResponse> changes;
+        do {
+            changes = changeService.changesAfter(watermark, batchSize);
+            if (changes.isEmpty()) {
+                return;
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.deliver(changes);
+            }
+            watermark = changes.get(changes.size() - 1).getPosition();
+        } while (changes.size() == batchSize);
+    }
+
+    /**
+     * Sends happen under the subscriber's monitor. The last catch-up query and switching to live
+     * delivery share that monitor with {@link #deliver}, so an event is either read by catch-up or
+     * delivered by the poller, and the position check drops the overlap.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long position;
+        private boolean live;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+
+        private synchronized long position() {
+            return position;
+        }
+
+        private void catchUp() {
+            AdmissionControlFilter admission = admissionControl.getIfAvailable();
+            while (true) {
+                if (admission != null && !admission.acquire()) {
+                    log.debug("Closing change stream subscriber at position {}: no admission permit", position());
+                    close();
+                    emitter.complete();
+                    return;
+                }
+                try {
+                    synchronized (this) {
+                        if (closed) {
+                            return;
+                        }
+                        List<ProductChangeResponse> changes = changeService.changesAfter(position, batchSize);
+                        send(changes);
+                        if (changes.size() < batchSize) {
+                            live = true;
+                            return;
+                        }
+                    }
+                } finally {
+                    if (admission != null) {
+                        admission.release();
+                    }
+                }
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        private synchronized void deliver(List<ProductChangeResponse> changes) {
+            if (live && !closed) {
+                send(changes);
+            }
+        }
+
+        private void send(List<ProductChangeResponse> changes) {
+            for (ProductChangeResponse change : changes) {
+                if (change.getPosition() <= position) {
+                    continue;
+                }
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getPosition()))
+                            .name(change.getType().name())
+                            .data(change, MediaType.APPLICATION_JSON));
+                    position = change.getPosition();
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed
+                    log.debug("Dropping change stream subscriber: {}", e.getMessage());
+                    close();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.voguethreads.catalog.web;
+
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductResponse;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * ETag values for product resources.
+ *
+ * <p>Single products get a strong ETag from id and the optimistic-lock {@code version}. Listing pages get a weak ETag from
+ * the newest updatedAt on the page plus the ids it contains, so deletions and reordering also
+ * change the tag, and from the paging metadata (totals, hasNext, nextCursor), so a page whose
+ * items are unchanged but whose totals or continuation moved is not answered with a 304.
+ * Pages whose items leave out updatedAt (sparse fieldsets) get no ETag.
+ *
+ * <p>Every write to a product row, including inventory decrements, bumps its version, so
+ * product ETags change exactly when the row does and double as the {@code If-Match} token for
+ * conditional updates. Timestamps would not: two writes within the same microsecond, or a
+ * clock step backwards, would leave the tag unchanged.
+ */
+public final class ProductETags {
+
+    private ProductETags() {
+    }
+
+    public static String forProduct(String productId, Long version) {
+        return "\"" + productId + "-v" + version + "\"";
+    }
+
+    /**
+     * Tags a differently encoded representation, e.g. the gzip copy of a body, keeping weak
+     * tags weak: {@code "prod_1-v3"} becomes {@code "prod_1-v3-gzip"}.
+     */
+    public static String withEncoding(String eTag, String encoding) {
+        int end = eTag.lastIndexOf('"');
+        return eTag.substring(0, end) + "-" + encoding + eTag.substring(end);
+    }
+
+    /**
+     * Evaluates an {@code If-Match} header against a product's current state: {@code *} or any
+     * listed tag equal to its ETag, or to the ETag of its gzip copy. Weak tags never match.
+     */
+    public static boolean matches(String ifMatch, String productId, Long version) {
+        String current = forProduct(productId, version);
+        String gzip = withEncoding(current, "gzip");
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(current) || candidate.equals(gzip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static String forPage(PagedResponse<ProductResponse> page) {
+        long maxUpdated = 0;
+        int idsHash = 1;
+        for (ProductResponse item : page.getItems()) {
+            if (item.getUpdatedAt() == null) {
+                return null;
+            }
+            maxUpdated = Math.max(maxUpdated, toMicros(item.getUpdatedAt()));
+            idsHash = 31 * idsHash + item.getId().hashCode();
+        }
+        int pagingHash = Objects.hash(page.getTotalItems(), page.getTotalPages(), page.getTotalExact(),
+                page.getHasNext(), page.getNextCursor());
+        return "W/\"" + Long.toHexString(maxUpdated) + "-" + Integer.toHexString(idsHash)
+                + "-" + page.getItems().size() + "-" + Integer.toHexString(pagingHash) + "\"";
+    }
+
+    private static long toMicros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,173 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.voguethreads.catalog.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-client rate limits and load shedding for the public {@code GET /products/**} reads, so
+ * scrapers cannot drain the connection pool that checkout and admin writes depend on.
+ *
+ * <p>Clients are keyed by JWT subject when authenticated, otherwise by remote address, which
+ * {@code server.forward-headers-strategy} resolves from {@code X-Forwarded-For} behind trusted
+ * proxies. Searches and listings draw from one budget and single-product reads, including the
+ * {@code ?ids=} multi-get, from a cheaper, larger one; an exhausted budget answers 429. The
+ * order service is not limited: its multi-gets and reservations are checkout traffic.
+ * Buckets live in a size-bounded cache and are dropped after sitting idle long enough to
+ * have refilled, so eviction never hands a client extra tokens.
+ *
+ * <p>When {@link PoolPressure} reports connection waits above the threshold, anonymous reads
+ * are additionally shed with 503: searches at the current shed fraction, single-product reads
+ * at half of it.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.enabled", havingValue = "true")
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum Budget { SEARCH, DETAIL }
+
+    private static final String SERVICE_AUTHORITY = "ROLE_ORDER_SERVICE";
+
+    private final long searchIntervalNanos;
+    private final long searchCapacityNanos;
+    private final long detailIntervalNanos;
+    private final long detailCapacityNanos;
+    private final Cache<String, TokenBucket> buckets;
+    private final PoolPressure poolPressure;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(
+            @Value("${rate-limit.search.capacity:20}") int searchCapacity,
+            @Value("${rate-limit.search.refill-per-second:10}") double searchRefillPerSecond,
+            @Value("${rate-limit.detail.capacity:100}") int detailCapacity,
+            @Value("${rate-limit.detail.refill-per-second:50}") double detailRefillPerSecond,
+            @Value("${rate-limit.max-clients:100000}") long maxClients,
+            PoolPressure poolPressure,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry
+    ) {
+        this.searchIntervalNanos = (long) (1_000_000_000L / searchRefillPerSecond);
+        this.searchCapacityNanos = searchCapacity * searchIntervalNanos;
+        this.detailIntervalNanos = (long) (1_000_000_000L / detailRefillPerSecond);
+        this.detailCapacityNanos = detailCapacity * detailIntervalNanos;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(Math.max(searchCapacityNanos, detailCapacityNanos)))
+                .build();
+        this.poolPressure = poolPressure;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        log.info("Rate limiting enabled: search {} burst / {} per s, detail {} burst / {} per s",
+                searchCapacity, searchRefillPerSecond, detailCapacity, detailRefillPerSecond);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) || !path(request).startsWith("/products");
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        Budget budget = budget(path(request), request.getParameter("ids") != null);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean anonymous = authentication == null || !authentication.isAuthenticated();
+        if (!anonymous && authentication.getAuthorities().stream()
+                .anyMatch(authority -> SERVICE_AUTHORITY.equals(authority.getAuthority()))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (anonymous) {
+            double shed = poolPressure.shedFraction();
+            if (budget == Budget.DETAIL) {
+                shed /= 2;
+            }
+            if (shed > 0 && ThreadLocalRandom.current().nextDouble() < shed) {
+                reject(response, budget, HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_UNAVAILABLE",
+                        "Service is shedding load, please retry", 1);
+                return;
+            }
+        }
+
+        String client = anonymous ? "ip:" + request.getRemoteAddr() : "user:" + authentication.getName();
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(budget.name() + '|' + client, key -> new TokenBucket(now));
+        long waitNanos = budget == Budget.SEARCH
+                ? bucket.tryAcquire(now, searchIntervalNanos, searchCapacityNanos)
+                : bucket.tryAcquire(now, detailIntervalNanos, detailCapacityNanos);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            reject(response, budget, HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED",
+                    "Too many requests, please retry later", retryAfterSeconds);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Listings, searches, facets, export and the change feed versus products looked up by id
+    static Budget budget(String path, boolean byIds) {
+        if (path.length() <= "/products/".length() || !path.startsWith("/products/")) {
+            return byIds ? Budget.DETAIL : Budget.SEARCH;
+        }
+        String rest = path.substring("/products/".length());
+        return rest.startsWith("facets") || rest.startsWith("export") || rest.startsWith("changes")
+                ? Budget.SEARCH
+                : Budget.DETAIL;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response, Budget budget, HttpStatus status, String code,
+                        String message, long retryAfterSeconds) throws IOException {
+        String traceId = UUID.randomUUID().toString();
+        log.debug("Request rejected - traceId: {}, code: {}, budget: {}", traceId, code, budget);
+        Counter.builder("catalog.ratelimit.rejected")
+                .description("Public reads rejected by rate limiting (429) or load shedding (503)")
+                .tag("reason", status == HttpStatus.TOO_MANY_REQUESTS ? "rate-limited" : "shed")
+                .tag("budget", budget.name().toLowerCase())
+                .register(meterRegistry)
+                .increment();
+
+        ErrorResponse.ErrorDetail errorDetail = ErrorResponse.ErrorDetail.builder()
+                .code(code)
+                .message(message)
+                .traceId(traceId)
+                .build();
+
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder().error(errorDetail).build());
+    }
+}
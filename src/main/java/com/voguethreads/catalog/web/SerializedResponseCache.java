@@ -0,0 +1,183 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.voguethreads.catalog.cache.ProductCache;
+import com.voguethreads.catalog.config.ReplicaRoutingDataSource;
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional cache of response bodies already serialized to JSON, plus a gzip copy when the body
+ * is above the compression threshold. Hot single-product and first-page reads are then served
+ * by copying bytes, without building the DTO graph or running Jackson and the compressor.
+ *
+ * <p>Entries are dropped through {@link ProductCache} eviction, so every product write (and its
+ * after-commit re-eviction) clears the product's entry and all cached pages. Clearing all pages
+ * does not stop a page load already in flight, which would then store what it read before the
+ * write for a whole TTL; pages therefore remember the eviction generation they were loaded in
+ * and are reloaded when a write has happened since.
+ *
+ * <p>The gzip copy gets its own ETag ({@code -gzip} suffix) since it is a different
+ * representation. Tomcat itself does not compress responses carrying a strong ETag, which is
+ * why single products are only ever compressed here.
+ */
+@Component
+@Slf4j
+public class SerializedResponseCache {
+
+    public record Body(byte[] json, byte[] gzip, String eTag, Instant lastModified) {
+    }
+
+    public record PageKey(Integer pageSize, String category) {
+    }
+
+    private record PageEntry(Body body, long generation) {
+    }
+
+    private final boolean enabled;
+    private final ObjectWriter writer;
+    private final long minCompressSize;
+    private final Cache<Long, Body> products;
+    private final Cache<PageKey, PageEntry> pages;
+    private final AtomicLong pageGeneration = new AtomicLong();
+
+    public SerializedResponseCache(
+            ObjectMapper objectMapper,
+            ProductCache productCache,
+            MeterRegistry meterRegistry,
+            @Value("${cache.serialized.enabled:false}") boolean enabled,
+            @Value("${cache.serialized.max-size:10000}") long maxSize,
+            @Value("${cache.serialized.ttl:10m}") Duration ttl,
+            @Value("${server.compression.min-response-size:2KB}") DataSize minCompressSize
+    ) {
+        this.enabled = enabled;
+        this.writer = objectMapper.writer();
+        this.minCompressSize = minCompressSize.toBytes();
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // First pages per page size and category; a write to any product clears them all
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "product-bodies");
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "page-bodies");
+        productCache.addEvictionListener(products::invalidate);
+        productCache.addPageEvictionListener(this::evictPages);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Body product(Long id, Supplier<ProductResponse> loader) {
+        return products.get(id, key -> {
+            ProductResponse response = ReplicaRoutingDataSource.onPrimary(loader);
+            return serialize(response, ProductETags.forProduct(response.getId(), response.getVersion()),
+                    response.getUpdatedAt());
+        });
+    }
+
+    public Body firstPage(PageKey key, Supplier<PagedResponse<ProductResponse>> loader) {
+        PageEntry entry = pages.get(key, k -> loadPage(loader));
+        if (entry.generation() != pageGeneration.get()) {
+            // Loaded across a write: serve this caller, and let the next one load after the write
+            pages.asMap().remove(key, entry);
+        }
+        return entry.body();
+    }
+
+    /**
+     * Builds the response for a cached body, choosing the gzip copy when the client accepts it.
+     * Conditional requests are answered by Spring from the ETag and Last-Modified set here.
+     */
+    public ResponseEntity<byte[]> respond(Body body, String acceptEncoding) {
+        boolean gzip = body.gzip() != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (body.eTag() != null) {
+            builder.eTag(gzip ? ProductETags.withEncoding(body.eTag(), "gzip") : body.eTag());
+        }
+        if (body.lastModified() != null) {
+            builder.lastModified(body.lastModified());
+        }
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(gzip ? body.gzip() : body.json());
+    }
+
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private void evictPages() {
+        pageGeneration.incrementAndGet();
+        pages.invalidateAll();
+    }
+
+    private PageEntry loadPage(Supplier<PagedResponse<ProductResponse>> loader) {
+        // Read before loading, so a write that lands during the load marks the entry stale
+        long generation = pageGeneration.get();
+        // From the primary, like ProductCache loads, so the page cannot predate an evicted write
+        PagedResponse<ProductResponse> page = ReplicaRoutingDataSource.onPrimary(loader);
+        return new PageEntry(serialize(page, ProductETags.forPage(page), null), generation);
+    }
+
+    private Body serialize(Object value, String eTag, Instant lastModified) {
+        try {
+            byte[] json = writer.writeValueAsBytes(value);
+            return new Body(json, json.length >= minCompressSize ? gzip(json) : null, eTag, lastModified);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response body", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream output = new GZIPOutputStream(compressed)) {
+            output.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
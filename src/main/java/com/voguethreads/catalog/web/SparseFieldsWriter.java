@@ -0,0 +1,41 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+/**
+ * Serializes listing pages requested with {@code fields=}, leaving the product fields that were
+ * not selected out of the JSON instead of writing them as {@code null}. Every other response
+ * keeps the regular shape, where absent values are explicit nulls.
+ */
+@Component
+public class SparseFieldsWriter {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private interface OmitNulls {
+    }
+
+    private final ObjectWriter writer;
+
+    public SparseFieldsWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.copy()
+                .addMixIn(ProductResponse.class, OmitNulls.class)
+                .writerFor(new TypeReference<PagedResponse<ProductResponse>>() { });
+    }
+
+    public byte[] write(PagedResponse<ProductResponse> page) {
+        try {
+            return writer.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
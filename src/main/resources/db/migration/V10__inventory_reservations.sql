@@ -0,0 +1,20 @@
+-- Checkout reservations, so stock taken by an abandoned checkout can be released or expire.
+-- Items carry no foreign key: deleting a product must not fail because of an old reservation.
+CREATE SEQUENCE inventory_reservations_id_seq INCREMENT BY 50;
+
+CREATE TABLE inventory_reservations (
+    id BIGINT PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP
+);
+
+CREATE TABLE inventory_reservation_items (
+    reservation_id BIGINT NOT NULL REFERENCES inventory_reservations (id) ON DELETE CASCADE,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    PRIMARY KEY (reservation_id, product_id)
+);
+
+-- Expiry scan: only reservations still held
+CREATE INDEX idx_inventory_reservations_held_expiry ON inventory_reservations (expires_at) WHERE status = 'HELD';
@@ -0,0 +1,6 @@
+-- Composite indexes backing keyset pagination on (created_at DESC, id DESC)
+CREATE INDEX idx_products_created_at_id ON products(created_at DESC, id DESC);
+CREATE INDEX idx_products_category_created_at_id ON products(category, created_at DESC, id DESC);
+
+-- Superseded by the composite indexes above
+DROP INDEX IF EXISTS idx_products_created_at;
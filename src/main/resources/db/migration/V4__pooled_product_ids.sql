@@ -0,0 +1,2 @@
+-- Hibernate allocates product ids in blocks of 50 (pooled optimizer) so inserts can be batched
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
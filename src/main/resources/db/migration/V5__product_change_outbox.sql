@@ -0,0 +1,18 @@
+-- Transactional outbox: one row per product change, written in the same transaction as the change.
+-- feed_position is assigned by the relay when it publishes the event, in commit order, so the
+-- change feed never skips an event whose transaction committed after a later id was published.
+CREATE SEQUENCE product_change_events_id_seq INCREMENT BY 50;
+
+CREATE TABLE product_change_events (
+    id BIGINT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    change_type VARCHAR(32) NOT NULL,
+    payload TEXT,
+    quantity_delta INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    feed_position BIGINT UNIQUE,
+    published_at TIMESTAMP
+);
+
+-- Relay scan: unpublished events in insertion order
+CREATE INDEX idx_product_change_events_unpublished ON product_change_events (id) WHERE feed_position IS NULL;
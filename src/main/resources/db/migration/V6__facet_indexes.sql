@@ -0,0 +1,8 @@
+-- Covering indexes for facet counts: the scan reads narrow index pages (index-only once the
+-- visibility map is current) instead of product rows with their TEXT descriptions
+CREATE INDEX idx_products_facets ON products (category, in_stock, amount) INCLUDE (id);
+CREATE INDEX idx_product_tags_product_id_tag ON product_tags (product_id, tag);
+
+-- Prefixes of the indexes above
+DROP INDEX IF EXISTS idx_products_category;
+DROP INDEX IF EXISTS idx_product_tags_product_id;
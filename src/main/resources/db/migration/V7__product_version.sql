@@ -0,0 +1,3 @@
+-- Optimistic locking: Hibernate checks and increments this on every entity update;
+-- the conditional inventory decrement increments it too
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
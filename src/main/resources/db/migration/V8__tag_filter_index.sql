@@ -0,0 +1,3 @@
+-- Tag filters on listings: each tag's product ids are one contiguous, id-ordered range of this
+-- index, read index-only and grouped per product instead of joining products once per tag
+CREATE INDEX idx_product_tags_tag_product_id ON product_tags (tag, product_id);
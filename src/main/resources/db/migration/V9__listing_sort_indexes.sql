@@ -0,0 +1,8 @@
+-- Ordered scans for sort=price_asc/price_desc and sort=name, with and without a category,
+-- so a page reads its rows in index order instead of sorting every match. minAmount and
+-- maxAmount are a range on amount; inStock and currency are checked on the rows read.
+-- category + inStock + price range is served by idx_products_facets (V6).
+CREATE INDEX idx_products_amount_id ON products (amount, id);
+CREATE INDEX idx_products_category_amount_id ON products (category, amount, id);
+CREATE INDEX idx_products_name_id ON products (name, id);
+CREATE INDEX idx_products_category_name_id ON products (category, name, id);
@@ -0,0 +1,180 @@
+package com.voguethreads.catalog.cache;
+
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.repository.ProductSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void page_ShouldDecodeRowsInListingOrderAndFilterByCategory() {
+        ProductSnapshot snapshot = ProductSnapshot.builder(4)
+                .add(summary(4, "tops", 40, "Linen shirt ünï"), List.of("linen", "summer"))
+                .add(summary(3, null, 30, null), List.of())
+                .add(summary(2, "tops", 20, "Tee"), List.of("cotton"))
+                .add(summary(1, "shoes", 10, "Sneaker"), List.of("summer"))
+                .build();
+
+        ProductSnapshot.Page all = snapshot.page(null, 1, 2);
+        assertEquals(4, all.totalItems());
+        assertEquals(List.of("prod_3", "prod_2"), ids(all));
+        ProductResponse noDescription = all.items().get(0);
+        assertNull(noDescription.getDescription());
+        assertNull(noDescription.getCategory());
+        assertEquals(List.of(), noDescription.getTags());
+
+        ProductSnapshot.Page tops = snapshot.page("tops", 0, 10);
+        assertEquals(2, tops.totalItems());
+        assertEquals(List.of("prod_4", "prod_2"), ids(tops));
+        ProductResponse first = tops.items().get(0);
+        assertEquals("SKU-4", first.getSku());
+        assertEquals("Product 4", first.getName());
+        assertEquals("Linen shirt ünï", first.getDescription());
+        assertEquals("EUR", first.getPrice().getCurrency());
+        assertEquals(400, first.getPrice().getAmount());
+        assertEquals(4, first.getInventory().getQuantity());
+        assertTrue(first.getInventory().getInStock());
+        assertEquals(List.of("linen", "summer"), first.getTags());
+        assertEquals(BASE.plusSeconds(40).plusNanos(123_000), first.getCreatedAt());
+        assertEquals(BASE.plusSeconds(41), first.getUpdatedAt());
+
+        // A tag is in the dictionary but is not a category
+        assertEquals(0, snapshot.page("summer", 0, 10).totalItems());
+        assertTrue(snapshot.page("tops", 5, 10).items().isEmpty());
+    }
+
+    @Test
+    void withChanges_ShouldInsertReplaceAndRemoveRowsKeepingTheRest() {
+        ProductSnapshot before = hundredRows();
+
+        // Merged from the overlay at read time, and folded into new columns
+        assertChanged(before, changes(before, 1_000));
+        assertChanged(before, changes(before, 0));
+    }
+
+    @Test
+    void withChanges_ShouldPageTheOverlayLikeCompactedColumns() {
+        ProductSnapshot before = hundredRows();
+        ProductSnapshot overlaid = changes(before, 1_000)
+                .withChanges(List.of(new ProductSnapshot.Row(summary(1, "category-1", 10, "Edited again"), List.of())),
+                        List.of(100L, 101L), 1_000);
+        ProductSnapshot compacted = changes(before, 1_000)
+                .withChanges(List.of(new ProductSnapshot.Row(summary(1, "category-1", 10, "Edited again"), List.of())),
+                        List.of(100L, 101L), 0);
+
+        assertEquals(compacted.size(), overlaid.size());
+        for (String category : new String[]{null, "category-0", "category-1", "category-new"}) {
+            for (int offset = 0; offset <= 100; offset += 7) {
+                for (int limit : new int[]{1, 5, 40}) {
+                    ProductSnapshot.Page expected = compacted.page(category, offset, limit);
+                    ProductSnapshot.Page actual = overlaid.page(category, offset, limit);
+                    assertEquals(expected.totalItems(), actual.totalItems(), category + " " + offset);
+                    assertEquals(expected.items(), actual.items(), category + " " + offset + " " + limit);
+                }
+            }
+        }
+        assertEquals("Edited again", overlaid.page(null, overlaid.size() - 1, 1).items().get(0).getDescription());
+        assertEquals(0, overlaid.page("category-new", 0, 10).totalItems());
+    }
+
+    @Test
+    void withChanges_ShouldKeepPatchedRowsOutOfTheColumnsUntilTheOverlayIsFull() {
+        ProductSnapshot before = hundredRows();
+        List<ProductSnapshot.Row> edits = List.of(
+                new ProductSnapshot.Row(summary(5, "category-2", 50, "Edited"), List.of()),
+                new ProductSnapshot.Row(summary(6, "category-0", 60, "Edited"), List.of()));
+
+        ProductSnapshot overlaid = before.withChanges(edits, List.of(), 4);
+        ProductSnapshot compacted = overlaid.withChanges(
+                List.of(new ProductSnapshot.Row(summary(7, "category-1", 70, "Edited"), List.of())), List.of(), 4);
+
+        assertEquals(before.memoryUsage().textBytes(), overlaid.memoryUsage().textBytes(), "no text copied");
+        assertTrue(overlaid.memoryUsage().overlayBytes() > before.memoryUsage().overlayBytes());
+        assertEquals(before.memoryUsage().overlayBytes(), compacted.memoryUsage().overlayBytes());
+        // One more chunk, holding exactly the three rows' text
+        long chunk = 16 + 3 * "SKU-5Product 5Edited".length();
+        assertEquals(before.memoryUsage().textBytes() + 8 + chunk, compacted.memoryUsage().textBytes());
+        assertEquals(100, compacted.size());
+        assertEquals("Edited", compacted.page(null, 93, 1).items().get(0).getDescription());
+    }
+
+    private static ProductSnapshot changes(ProductSnapshot before, int maxOverlayRows) {
+        return before.withChanges(
+                List.of(
+                        // New product, newest of all
+                        new ProductSnapshot.Row(summary(101, "category-new", 2_000, "New"), List.of("fresh")),
+                        // Edited in place: same position, new text and tags
+                        new ProductSnapshot.Row(summary(50, "category-2", 500, "Edited"), List.of("edited", "tag-0")),
+                        // Same id, new position between 21 and 20
+                        new ProductSnapshot.Row(summary(70, "category-1", 205, "Moved"), List.of())),
+                List.of(10L, 99L, 12345L), maxOverlayRows);
+    }
+
+    private static void assertChanged(ProductSnapshot before, ProductSnapshot after) {
+        assertEquals(100, before.size(), "the original is unchanged");
+        assertEquals(99, after.size());
+        List<String> order = ids(after.page(null, 0, 200));
+        assertEquals("prod_101", order.get(0));
+        assertEquals("prod_100", order.get(1));
+        assertEquals("prod_98", order.get(2));
+        assertFalse(order.contains("prod_99"));
+        assertFalse(order.contains("prod_10"));
+        assertEquals(order.indexOf("prod_21") + 1, order.indexOf("prod_70"));
+        assertEquals(order.indexOf("prod_70") + 1, order.indexOf("prod_20"));
+
+        ProductResponse edited = after.page(null, order.indexOf("prod_50"), 1).items().get(0);
+        assertEquals("Edited", edited.getDescription());
+        assertEquals(List.of("edited", "tag-0"), edited.getTags());
+        ProductResponse untouched = after.page(null, order.indexOf("prod_51"), 1).items().get(0);
+        assertEquals("Description 51", untouched.getDescription());
+        assertEquals(List.of("tag-1"), untouched.getTags());
+        assertEquals(1, after.page("category-new", 0, 10).totalItems());
+        assertEquals(32, after.page("category-0", 0, 100).totalItems(), "99 was one of the 33");
+    }
+
+    @Test
+    void memoryUsage_ShouldGrowWithRows() {
+        ProductSnapshot.MemoryUsage empty = ProductSnapshot.empty().memoryUsage();
+        ProductSnapshot.Builder builder = ProductSnapshot.builder(0);
+        for (int id = 1_000; id >= 1; id--) {
+            builder.add(summary(id, "category-" + id % 10, id, "Description " + id), List.of("a", "b"));
+        }
+        ProductSnapshot.MemoryUsage usage = builder.build().memoryUsage();
+
+        assertEquals(0, empty.rows());
+        assertEquals(1_000, usage.rows());
+        // Eight bytes each for id, two timestamps and text address, plus the int and boolean columns
+        assertTrue(usage.numericBytes() >= 1_000 * (4 * 8 + 4 * 4 + 1));
+        assertTrue(usage.textBytes() >= 1_000 * "SKU-1000Product 1000Description 1000".length() / 2);
+        assertTrue(usage.tagBytes() >= 1_000 * 2 * 4);
+        assertEquals(usage.numericBytes() + usage.textBytes() + usage.tagBytes() + usage.dictionaryBytes()
+                + usage.indexBytes() + usage.overlayBytes(), usage.totalBytes());
+        assertTrue(usage.totalBytes() > empty.totalBytes());
+    }
+
+    private static ProductSnapshot hundredRows() {
+        ProductSnapshot.Builder builder = ProductSnapshot.builder(0);
+        for (int id = 100; id >= 1; id--) {
+            builder.add(summary(id, "category-" + id % 3, id * 10, "Description " + id), List.of("tag-" + id % 5));
+        }
+        return builder.build();
+    }
+
+    private static List<String> ids(ProductSnapshot.Page page) {
+        return page.items().stream().map(ProductResponse::getId).toList();
+    }
+
+    // createdSecond places the row; builders take rows newest first
+    private static ProductSummary summary(long id, String category, int createdSecond, String description) {
+        return new ProductSummary(id, "SKU-" + id, "Product " + id, description, "EUR", (int) id * 100,
+                (int) id % 5, id % 5 > 0, category,
+                BASE.plusSeconds(createdSecond).plusNanos(123_000), BASE.plusSeconds(createdSecond + 1), 0L);
+    }
+}
@@ -0,0 +1,146 @@
+package com.voguethreads.catalog.config;
+
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import com.voguethreads.catalog.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two independent in-memory H2 databases stand in for primary and replica. Nothing replicates
+ * between them, so which one served a query shows in what it returns.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "datasource.replica.username=sa",
+        "datasource.replica.read-your-writes-window=5s"
+})
+class ReadReplicaRoutingIntegrationTest {
+
+    private static boolean replicaSchemaCreated;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+
+    @BeforeEach
+    void setUp() {
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        primaryJdbc = new JdbcTemplate(primaryDataSource);
+        replicaJdbc = new JdbcTemplate(replicaDataSource);
+        if (!replicaSchemaCreated) {
+            // Hibernate creates the schema on the primary only; copy it over
+            for (String statement : primaryJdbc.queryForList("SCRIPT NODATA", String.class)) {
+                replicaJdbc.execute(statement);
+            }
+            replicaSchemaCreated = true;
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUseReplica_AndWritesThePrimary() {
+        Product saved = readWrite.execute(status -> productRepository.save(product("ROUTE-1")));
+
+        assertEquals(1, count(primaryJdbc, "ROUTE-1"));
+        assertEquals(0, count(replicaJdbc, "ROUTE-1"));
+        assertTrue(findBySku(readOnly, "ROUTE-1").isEmpty());
+
+        replicaJdbc.update("INSERT INTO products (id, sku, name, currency, amount, quantity, in_stock, category, " +
+                "created_at, updated_at) VALUES (?, 'ROUTE-1', 'Replica copy', 'USD', 1999, 3, TRUE, 'tops', " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", saved.getId());
+
+        assertEquals("Replica copy", findBySku(readOnly, "ROUTE-1").orElseThrow().getName());
+        assertEquals("Routed ROUTE-1", findBySku(readWrite, "ROUTE-1").orElseThrow().getName());
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUsePrimary_AfterCallersOwnWrite() {
+        authenticate("user-1");
+        readWrite.execute(status -> productRepository.save(product("ROUTE-2")));
+
+        assertTrue(findBySku(readOnly, "ROUTE-2").isPresent());
+
+        authenticate("user-2");
+        assertTrue(findBySku(readOnly, "ROUTE-2").isEmpty());
+    }
+
+    @Test
+    void cacheLoads_ShouldReadThePrimary_SoALaggingReplicaIsNotCached() {
+        Product saved = readWrite.execute(status -> productRepository.save(product("ROUTE-3")));
+        replicaJdbc.update("INSERT INTO products (id, sku, name, currency, amount, quantity, in_stock, category, " +
+                "created_at, updated_at) VALUES (?, 'ROUTE-3', 'Stale replica copy', 'USD', 1999, 3, TRUE, 'tops', " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", saved.getId());
+
+        assertEquals("Routed ROUTE-3", productService.getProductById(saved.getId()).getName());
+        assertEquals("Routed ROUTE-3", productService.getProductsByIds(List.of("prod_" + saved.getId()))
+                .getItems().get(0).getProduct().getName());
+        assertEquals("Stale replica copy", findBySku(readOnly, "ROUTE-3").orElseThrow().getName());
+    }
+
+    private Optional<Product> findBySku(TransactionTemplate transaction, String sku) {
+        return transaction.execute(status -> productRepository.findBySku(sku));
+    }
+
+    private static int count(JdbcTemplate jdbc, String sku) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM products WHERE sku = ?", Integer.class, sku);
+    }
+
+    private static void authenticate(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+
+    private static Product product(String sku) {
+        return Product.builder()
+                .sku(sku)
+                .name("Routed " + sku)
+                .currency("USD")
+                .amount(1999)
+                .quantity(3)
+                .inStock(true)
+                .category("tops")
+                .build();
+    }
+}
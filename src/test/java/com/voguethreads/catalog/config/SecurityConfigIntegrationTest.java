@@ -0,0 +1,145 @@
+package com.voguethreads.catalog.config;
+
+import com.jayway.jsonpath.JsonPath;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Endpoint authorization through the real filter chain, with signed tokens as callers send them.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SecurityConfigIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll(productRepository.findAll().stream()
+                .filter(product -> product.getSku().startsWith("SEC-"))
+                .toList());
+    }
+
+    @Test
+    void reserveInventory_WithCustomerToken_ShouldBeForbiddenAndLeaveStock() throws Exception {
+        Product product = productRepository.save(product("SEC-1"));
+
+        mockMvc.perform(post("/products/reservations")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("customer-1", "USER"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(product, 2)))
+                .andExpect(status().isForbidden());
+
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void reserveInventory_WithoutToken_ShouldBeRejected() throws Exception {
+        Product product = productRepository.save(product("SEC-2"));
+
+        mockMvc.perform(post("/products/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(product, 2)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void reserveInventory_WithOrderServiceToken_ShouldReserve() throws Exception {
+        Product product = productRepository.save(product("SEC-3"));
+
+        mockMvc.perform(post("/products/reservations")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("order-service", "ORDER_SERVICE"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(product, 2)))
+                .andExpect(status().isOk());
+
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void releaseReservation_WithOrderServiceToken_ShouldNotNeedTheAdminDeleteRole() throws Exception {
+        Product product = productRepository.save(product("SEC-4"));
+        String reservation = mockMvc.perform(post("/products/reservations")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("order-service", "ORDER_SERVICE"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(reservation(product, 2)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String reservationId = JsonPath.read(reservation, "$.reservationId");
+
+        mockMvc.perform(delete("/products/reservations/{id}", reservationId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer("customer-1", "USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/products/reservations/{id}", reservationId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer("order-service", "ORDER_SERVICE")))
+                .andExpect(status().isNoContent());
+
+        assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void exportProducts_ShouldRequireAPartnerToken() throws Exception {
+        mockMvc.perform(get("/products/export"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/products/export")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("customer-1", "USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/products/export")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("feed-partner", "PARTNER")))
+                .andExpect(status().isOk());
+    }
+
+    private String bearer(String subject, String... roles) {
+        return "Bearer " + Jwts.builder()
+                .subject(subject)
+                .claim("roles", List.of(roles))
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+
+    private static String reservation(Product product, int quantity) {
+        return "{\"items\":[{\"productId\":\"prod_" + product.getId() + "\",\"quantity\":" + quantity + "}]}";
+    }
+
+    private static Product product(String sku) {
+        return Product.builder()
+                .sku(sku)
+                .name("Secured " + sku)
+                .currency("USD")
+                .amount(1000)
+                .quantity(10)
+                .inStock(true)
+                .category("tops")
+                .build();
+    }
+}
@@ -1,35 +1,71 @@
 package com.voguethreads.catalog.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voguethreads.catalog.dto.BulkImportResponse;
 import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductBatchResponse;
+import com.voguethreads.catalog.dto.ProductChangeResponse;
+import com.voguethreads.catalog.dto.ProductChangesResponse;
+import com.voguethreads.catalog.dto.ProductFacetsResponse;
+import com.voguethreads.catalog.dto.ProductPatchRequest;
 import com.voguethreads.catalog.dto.ProductRequest;
 import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.dto.ReservationRequest;
+import com.voguethreads.catalog.dto.ReservationResponse;
+import com.voguethreads.catalog.exception.CapacityExceededException;
+import com.voguethreads.catalog.exception.PreconditionFailedException;
+import com.voguethreads.catalog.metrics.CatalogMetrics;
+import com.voguethreads.catalog.model.ProductChangeType;
+import com.voguethreads.catalog.service.ProductChangeService;
+import com.voguethreads.catalog.service.ProductExportService;
+import com.voguethreads.catalog.service.ProductFilter;
+import com.voguethreads.catalog.service.ProductFacetService;
+import com.voguethreads.catalog.service.ProductImportService;
 import com.voguethreads.catalog.service.ProductService;
+import com.voguethreads.catalog.service.ProductUpsert;
+import com.voguethreads.catalog.service.ProductVersion;
+import com.voguethreads.catalog.web.ProductChangeStream;
+import com.voguethreads.catalog.web.ProductETags;
+import com.voguethreads.catalog.web.SerializedResponseCache;
+import com.voguethreads.catalog.web.SparseFieldsWriter;
 import com.voguethreads.catalog.security.JwtAuthenticationFilter;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.hamcrest.Matchers;
 import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(SparseFieldsWriter.class)
 class ProductControllerTest {
 
     @Autowired
@@ -41,9 +77,30 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private ProductExportService productExportService;
+
+    @MockBean
+    private ProductFacetService productFacetService;
+
+    @MockBean
+    private ProductChangeService productChangeService;
+
+    @MockBean
+    private ProductChangeStream productChangeStream;
+
+    @MockBean
+    private SerializedResponseCache serializedResponseCache;
+
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @MockBean
+    private CatalogMetrics catalogMetrics;
+
     private ProductResponse sampleProduct(String id) {
         return ProductResponse.builder()
                 .id(id)
@@ -56,6 +113,7 @@ class ProductControllerTest {
                 .tags(List.of("men", "summer"))
                 .createdAt(Instant.parse("2024-01-01T00:00:00Z"))
                 .updatedAt(Instant.parse("2024-01-02T00:00:00Z"))
+                .version(1L)
                 .build();
     }
 
@@ -68,15 +126,21 @@ class ProductControllerTest {
                 .pageSize(2)
                 .totalItems(10L)
                 .totalPages(5)
+                .totalExact(true)
+                .hasNext(true)
                 .build();
 
-        when(productService.listProducts(eq(1), eq(2), eq("shirt"), eq("tops"))).thenReturn(paged);
+        when(productService.listProducts(eq(1), eq(2), eq(ProductFilter.of("shirt", "tops")), eq("relevance"), eq("name,price,inventory"), eq(true)))
+                .thenReturn(paged);
 
         mockMvc.perform(get("/products")
                         .param("page", "1")
                         .param("pageSize", "2")
                         .param("query", "shirt")
-                        .param("category", "tops"))
+                        .param("category", "tops")
+                        .param("sort", "relevance")
+                        .param("fields", "name,price,inventory")
+                        .param("includeTotal", "true"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.items", hasSize(2)))
@@ -84,11 +148,123 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.pageSize", is(2)))
                 .andExpect(jsonPath("$.totalItems", is(10)))
                 .andExpect(jsonPath("$.totalPages", is(5)))
+                .andExpect(jsonPath("$.totalExact", is(true)))
+                .andExpect(jsonPath("$.hasNext", is(true)))
                 .andExpect(jsonPath("$.items[0].sku", is("SKU-123")))
                 .andExpect(jsonPath("$.items[0].price.currency", is("USD")))
                 .andExpect(jsonPath("$.items[0].inventory.inStock", is(true)));
 
-        verify(productService, times(1)).listProducts(1, 2, "shirt", "tops");
+        verify(productService, times(1)).listProducts(1, 2, ProductFilter.of("shirt", "tops"), "relevance", "name,price,inventory", true);
+    }
+
+    @Test
+    @DisplayName("GET /products should leave unselected fields out only when fields= is given")
+    void listProducts_fields_omitsOnlyUnselectedFields() throws Exception {
+        ProductResponse sparse = ProductResponse.builder().id("p1").name("Sample Tee").build();
+        ProductResponse full = sampleProduct("p1");
+        full.setDescription(null);
+        when(productService.listProducts(any(), any(), any(), any(), eq("name"), anyBoolean()))
+                .thenReturn(PagedResponse.<ProductResponse>builder().items(List.of(sparse)).page(1).build());
+        when(productService.listProducts(any(), any(), any(), eq("name"), isNull(), anyBoolean()))
+                .thenReturn(PagedResponse.<ProductResponse>builder().items(List.of(full)).page(1).build());
+
+        mockMvc.perform(get("/products").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].name", is("Sample Tee")))
+                .andExpect(jsonPath("$.items[0].description").doesNotHaveJsonPath())
+                .andExpect(jsonPath("$.items[0].price").doesNotHaveJsonPath());
+        mockMvc.perform(get("/products").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].description").hasJsonPath())
+                .andExpect(jsonPath("$.items[0].description").value(Matchers.nullValue()));
+    }
+
+    @Test
+    @DisplayName("GET /products with cursor should return keyset page with nextCursor and no totals")
+    void listProducts_cursorMode_success() throws Exception {
+        PagedResponse<ProductResponse> paged = PagedResponse.<ProductResponse>builder()
+                .items(List.of(sampleProduct("p1")))
+                .pageSize(1)
+                .nextCursor("next-token")
+                .build();
+
+        when(productService.listProductsByCursor(eq(""), eq(1), eq(ProductFilter.of(null, "tops")), isNull())).thenReturn(paged);
+
+        mockMvc.perform(get("/products")
+                        .param("cursor", "")
+                        .param("pageSize", "1")
+                        .param("category", "tops"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next-token")))
+                .andExpect(jsonPath("$.totalItems").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+        verify(productService, never()).listProducts(any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /products with tags should pass the tag filter and skip the cached first page")
+    void listProducts_withTags() throws Exception {
+        ProductFilter filter = ProductFilter.of(null, null, List.of("linen", "summer"), "all");
+        PagedResponse<ProductResponse> paged = PagedResponse.<ProductResponse>builder()
+                .items(List.of(sampleProduct("p1")))
+                .page(1)
+                .pageSize(20)
+                .totalItems(1L)
+                .totalPages(1)
+                .build();
+        when(productService.listProducts(isNull(), isNull(), eq(filter), isNull(), isNull(), eq(false))).thenReturn(paged);
+
+        mockMvc.perform(get("/products")
+                        .param("tags", "linen,summer")
+                        .param("tagMatch", "all"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)));
+
+        verify(productService).listProducts(null, null, filter, null, null, false);
+        verify(productService, never()).browseProducts(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /products should pass price, stock and currency filters with the sort")
+    void listProducts_withPriceStockAndCurrency() throws Exception {
+        ProductFilter filter = ProductFilter.builder()
+                .category("tops").minAmount(1000).maxAmount(5000).inStock(true).currency("USD").build();
+        PagedResponse<ProductResponse> paged = PagedResponse.<ProductResponse>builder()
+                .items(List.of(sampleProduct("p1")))
+                .page(1)
+                .pageSize(20)
+                .hasNext(false)
+                .build();
+        when(productService.listProducts(isNull(), isNull(), eq(filter), eq("price_asc"), isNull(), eq(false)))
+                .thenReturn(paged);
+
+        mockMvc.perform(get("/products")
+                        .param("category", "tops")
+                        .param("minAmount", "1000")
+                        .param("maxAmount", "5000")
+                        .param("inStock", "true")
+                        .param("currency", "usd")
+                        .param("sort", "price_asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.hasNext", is(false)));
+
+        verify(productService, never()).browseProducts(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /products with a cursor should reject sorts other than newest")
+    void listProducts_cursorWithPriceSort_badRequest() throws Exception {
+        mockMvc.perform(get("/products")
+                        .param("cursor", "")
+                        .param("sort", "price_desc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("INVALID_REQUEST")));
+
+        verifyNoInteractions(productService);
     }
 
     @Test
@@ -107,6 +283,104 @@ class ProductControllerTest {
         verify(productService, times(1)).getProductByIdString("abc");
     }
 
+    @Test
+    @DisplayName("GET /products/{id} should return ETag and Last-Modified")
+    void getProduct_setsValidators() throws Exception {
+        when(productService.getProductByIdString("prod_1")).thenReturn(sampleProduct("prod_1"));
+
+        mockMvc.perform(get("/products/{id}", "prod_1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ProductETags.forProduct("prod_1", 1L)))
+                .andExpect(header().string("Last-Modified", "Tue, 02 Jan 2024 00:00:00 GMT"));
+    }
+
+    @Test
+    @DisplayName("GET /products/{id} with matching If-None-Match should return 304 without loading the product")
+    void getProduct_notModified() throws Exception {
+        Instant updatedAt = Instant.parse("2024-01-02T00:00:00Z");
+        when(productService.getProductVersion("prod_1")).thenReturn(new ProductVersion("prod_1", 1L, updatedAt));
+
+        mockMvc.perform(get("/products/{id}", "prod_1")
+                        .header("If-None-Match", ProductETags.forProduct("prod_1", 1L)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(productService, never()).getProductByIdString(any());
+    }
+
+    @Test
+    @DisplayName("GET /products/{id} with stale If-None-Match should return the full product")
+    void getProduct_modified() throws Exception {
+        when(productService.getProductVersion("prod_1"))
+                .thenReturn(new ProductVersion("prod_1", 2L, Instant.parse("2024-01-02T00:00:00Z")));
+        when(productService.getProductByIdString("prod_1")).thenReturn(sampleProduct("prod_1"));
+
+        mockMvc.perform(get("/products/{id}", "prod_1")
+                        .header("If-None-Match", ProductETags.forProduct("prod_1", 1L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is("prod_1")));
+    }
+
+    @Test
+    @DisplayName("GET /products with matching weak ETag should return 304")
+    void listProducts_notModified() throws Exception {
+        PagedResponse<ProductResponse> paged = PagedResponse.<ProductResponse>builder()
+                .items(List.of(sampleProduct("p1"), sampleProduct("p2")))
+                .page(1)
+                .pageSize(20)
+                .totalItems(2L)
+                .totalPages(1)
+                .build();
+        when(productService.browseProducts(any(), any(), any())).thenReturn(paged);
+
+        String eTag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", Matchers.startsWith("W/")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/products").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DisplayName("GET /products should change its weak ETag when only the totals change")
+    void listProducts_totalsChanged_returnsPage() throws Exception {
+        PagedResponse<ProductResponse> paged = PagedResponse.<ProductResponse>builder()
+                .items(List.of(sampleProduct("p1"), sampleProduct("p2")))
+                .page(1)
+                .pageSize(2)
+                .totalItems(2L)
+                .totalPages(1)
+                .hasNext(false)
+                .build();
+        when(productService.browseProducts(any(), any(), any())).thenReturn(paged);
+
+        String eTag = mockMvc.perform(get("/products"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        paged.setTotalItems(3L);
+        paged.setTotalPages(2);
+        paged.setHasNext(true);
+        mockMvc.perform(get("/products").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("GET /products when signed in should not be served from the browse snapshot")
+    void listProducts_signedIn_readsDatabase() throws Exception {
+        when(productService.listProducts(any(), any(), any(), any(), any(), anyBoolean()))
+                .thenReturn(PagedResponse.<ProductResponse>builder().items(List.of()).page(2).build());
+
+        mockMvc.perform(get("/products").param("page", "2").param("category", "tops"))
+                .andExpect(status().isOk());
+
+        verify(productService).listProducts(2, null, ProductFilter.of(null, "tops"), null, null, false);
+        verify(productService, never()).browseProducts(any(), any(), any());
+    }
+
     @Test
     @WithMockUser(roles = "ADMIN")
     @DisplayName("POST /products should create and return Product with 201 when ADMIN")
@@ -158,7 +432,7 @@ class ProductControllerTest {
 
         ProductResponse updated = sampleProduct("abc");
         updated.setName("Updated Tee");
-        when(productService.updateProductByIdString(eq("abc"), any(ProductRequest.class))).thenReturn(updated);
+        when(productService.updateProductByIdString(eq("abc"), any(ProductRequest.class), isNull())).thenReturn(updated);
 
         mockMvc.perform(put("/products/{id}", "abc")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -168,7 +442,265 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.id", is("abc")))
                 .andExpect(jsonPath("$.name", is("Updated Tee")));
 
-        verify(productService, times(1)).updateProductByIdString(eq("abc"), any(ProductRequest.class));
+        verify(productService, times(1)).updateProductByIdString(eq("abc"), any(ProductRequest.class), isNull());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("PUT /products/{id} with If-Match should pass the ETag check to the update and return the new ETag")
+    void updateProduct_ifMatch() throws Exception {
+        ProductResponse current = sampleProduct("prod_1");
+        String currentETag = ProductETags.forProduct("prod_1", current.getVersion());
+        ProductResponse updated = sampleProduct("prod_1");
+        updated.setUpdatedAt(Instant.parse("2024-01-03T00:00:00Z"));
+        updated.setVersion(2L);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Predicate<ProductVersion>> precondition = ArgumentCaptor.forClass(Predicate.class);
+        when(productService.updateProductByIdString(eq("prod_1"), any(ProductRequest.class), precondition.capture()))
+                .thenReturn(updated);
+
+        mockMvc.perform(put("/products/{id}", "prod_1")
+                        .header("If-Match", currentETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ProductRequest.builder()
+                                .sku("SKU-123").name("Sample Tee").currency("USD").amount(1999).quantity(50)
+                                .build())))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ProductETags.forProduct("prod_1", updated.getVersion())));
+
+        assertTrue(precondition.getValue().test(new ProductVersion("prod_1", 1L, current.getUpdatedAt())));
+        assertFalse(precondition.getValue().test(new ProductVersion("prod_1", 2L, updated.getUpdatedAt())));
+        // Same timestamp, newer version: still a different representation
+        assertFalse(precondition.getValue().test(new ProductVersion("prod_1", 2L, current.getUpdatedAt())));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("PUT /products/sku/{sku} should return 201 when created and 200 when replaced")
+    void upsertProduct_createdThenReplaced() throws Exception {
+        ProductResponse product = sampleProduct("prod_1");
+        when(productService.upsertProductBySku(eq("SKU-123"), any(ProductRequest.class)))
+                .thenReturn(new ProductUpsert(product, true))
+                .thenReturn(new ProductUpsert(product, false));
+        String body = objectMapper.writeValueAsString(ProductRequest.builder()
+                .sku("SKU-123").name("Sample Tee").currency("USD").amount(1999).quantity(50)
+                .build());
+
+        mockMvc.perform(put("/products/sku/{sku}", "SKU-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("ETag", ProductETags.forProduct("prod_1", product.getVersion())))
+                .andExpect(jsonPath("$.id", is("prod_1")));
+        mockMvc.perform(put("/products/sku/{sku}", "SKU-123")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("PATCH /products/{id} should return 412 when the product changed since the If-Match ETag")
+    void patchProduct_preconditionFailed() throws Exception {
+        when(productService.patchProductByIdString(eq("prod_1"), any(ProductPatchRequest.class), any()))
+                .thenThrow(new PreconditionFailedException("Product prod_1 has been modified since it was read"));
+
+        mockMvc.perform(patch("/products/{id}", "prod_1")
+                        .header("If-Match", "\"prod_1-0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed Tee\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error.code", is("PRECONDITION_FAILED")));
+
+        ArgumentCaptor<ProductPatchRequest> captor = ArgumentCaptor.forClass(ProductPatchRequest.class);
+        verify(productService).patchProductByIdString(eq("prod_1"), captor.capture(), any());
+        assertEquals("Renamed Tee", captor.getValue().getName());
+        assertNull(captor.getValue().getQuantity());
+    }
+
+    @Test
+    @DisplayName("GET /products?ids= should return items in request order with not-found markers")
+    void getProductsByIds_success() throws Exception {
+        ProductBatchResponse batch = ProductBatchResponse.builder()
+                .items(List.of(
+                        ProductBatchResponse.Item.builder().id("prod_2").product(sampleProduct("prod_2")).build(),
+                        ProductBatchResponse.Item.builder().id("7").error("PRODUCT_NOT_FOUND").build()))
+                .build();
+        when(productService.getProductsByIds(List.of("prod_2", "7"))).thenReturn(batch);
+
+        mockMvc.perform(get("/products").param("ids", "prod_2,7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].product.id", is("prod_2")))
+                .andExpect(jsonPath("$.items[0].error").doesNotExist())
+                .andExpect(jsonPath("$.items[1].id", is("7")))
+                .andExpect(jsonPath("$.items[1].error", is("PRODUCT_NOT_FOUND")));
+
+        verify(productService, never()).listProducts(any(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("GET /products/facets should return counts for the listing filters")
+    void getFacets_success() throws Exception {
+        ProductFacetsResponse facets = ProductFacetsResponse.builder()
+                .total(3)
+                .categories(List.of(new ProductFacetsResponse.FacetValue("tops", 3)))
+                .tags(List.of(new ProductFacetsResponse.FacetValue("summer", 2)))
+                .priceBands(List.of(
+                        new ProductFacetsResponse.PriceBand("USD", null, 2500, 3),
+                        new ProductFacetsResponse.PriceBand("USD", 2500, null, 0)))
+                .inStock(new ProductFacetsResponse.StockCounts(2, 1))
+                .build();
+        ProductFilter filter = ProductFilter.builder()
+                .query("tee").category("tops").tags(List.of("summer")).maxAmount(5000).inStock(true).currency("usd")
+                .build();
+        when(productFacetService.getFacets(filter)).thenReturn(facets);
+
+        mockMvc.perform(get("/products/facets").param("query", "tee").param("category", "tops")
+                        .param("tags", "summer").param("maxAmount", "5000").param("inStock", "true")
+                        .param("currency", "usd"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.priceBands[0].currency", is("USD")))
+                .andExpect(jsonPath("$.total", is(3)))
+                .andExpect(jsonPath("$.categories[0].value", is("tops")))
+                .andExpect(jsonPath("$.tags[0].count", is(2)))
+                .andExpect(jsonPath("$.priceBands[0].max", is(2500)))
+                .andExpect(jsonPath("$.priceBands[1].max").doesNotExist())
+                .andExpect(jsonPath("$.inStock.outOfStock", is(1)));
+    }
+
+    @Test
+    @WithMockUser(roles = "PARTNER")
+    @DisplayName("GET /products/export should stream NDJSON, gzip-compressed when accepted")
+    void exportProducts_gzip() throws Exception {
+        when(productExportService.export(eq(ProductExportService.Format.NDJSON), any())).thenAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(1);
+            output.write("{\"id\":\"prod_1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        byte[] body = mockMvc.perform(get("/products/export").header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", Matchers.startsWith("application/x-ndjson")))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.ndjson\""))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":\"prod_1\"}\n", new String(input.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @WithMockUser(roles = "PARTNER")
+    @DisplayName("GET /products/export should reject unknown formats")
+    void exportProducts_unsupportedFormat() throws Exception {
+        mockMvc.perform(get("/products/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("INVALID_REQUEST")));
+
+        verifyNoInteractions(productExportService);
+    }
+
+    @Test
+    @WithMockUser(roles = "PARTNER")
+    @DisplayName("GET /products/export should answer 503 with Retry-After when every export slot is taken")
+    void exportProducts_busy() throws Exception {
+        when(productExportService.acquireSlot()).thenThrow(
+                new CapacityExceededException("Too many catalog exports in progress", Duration.ofMinutes(1)));
+
+        mockMvc.perform(get("/products/export").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "60"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(jsonPath("$.error.code", is("SERVICE_UNAVAILABLE")));
+
+        verify(productExportService, never()).export(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /products/changes should return feed entries with the stored product snapshot")
+    void listChanges_success() throws Exception {
+        ProductChangesResponse changes = ProductChangesResponse.builder()
+                .changes(List.of(
+                        ProductChangeResponse.builder()
+                                .position(41L).productId("prod_1").type(ProductChangeType.UPDATED)
+                                .occurredAt(Instant.parse("2024-01-02T00:00:00Z"))
+                                .product("{\"id\":\"prod_1\",\"name\":\"Sample Tee\"}")
+                                .build(),
+                        ProductChangeResponse.builder()
+                                .position(42L).productId("prod_1").type(ProductChangeType.INVENTORY_CHANGED)
+                                .occurredAt(Instant.parse("2024-01-02T00:00:01Z"))
+                                .quantityDelta(-2)
+                                .build()))
+                .nextSince(42L)
+                .hasMore(false)
+                .build();
+        when(productChangeService.listChanges(40L, 2)).thenReturn(changes);
+
+        mockMvc.perform(get("/products/changes").param("since", "40").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].type", is("UPDATED")))
+                .andExpect(jsonPath("$.changes[0].product.name", is("Sample Tee")))
+                .andExpect(jsonPath("$.changes[1].quantityDelta", is(-2)))
+                .andExpect(jsonPath("$.changes[1].product").doesNotExist())
+                .andExpect(jsonPath("$.nextSince", is(42)))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ORDER_SERVICE")
+    @DisplayName("POST /products/reservations should reserve all cart items")
+    void reserveInventory_success() throws Exception {
+        ReservationRequest req = ReservationRequest.builder()
+                .items(List.of(new ReservationRequest.Item("prod_1", 2)))
+                .build();
+        ReservationResponse reserved = ReservationResponse.builder()
+                .items(List.of(new ReservationResponse.ReservedItem("prod_1", 2)))
+                .build();
+        when(productService.reserveInventory(any(ReservationRequest.class))).thenReturn(reserved);
+
+        mockMvc.perform(post("/products/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].productId", is("prod_1")))
+                .andExpect(jsonPath("$.items[0].quantity", is(2)));
+    }
+
+    @Test
+    @WithMockUser(roles = "ORDER_SERVICE")
+    @DisplayName("POST /products/reservations should reject non-positive quantities")
+    void reserveInventory_invalidQuantity() throws Exception {
+        ReservationRequest req = ReservationRequest.builder()
+                .items(List.of(new ReservationRequest.Item("prod_1", 0)))
+                .build();
+
+        mockMvc.perform(post("/products/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error.code", is("VALIDATION_ERROR")));
+
+        verify(productService, never()).reserveInventory(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    @DisplayName("POST /products/bulk should stream CSV bodies to the importer")
+    void bulkImport_csv_success() throws Exception {
+        BulkImportResponse report = BulkImportResponse.builder()
+                .received(1L).imported(1L).failed(0L).errors(List.of()).build();
+        when(productImportService.importProducts(any(), eq(ProductImportService.Format.CSV))).thenReturn(report);
+
+        mockMvc.perform(post("/products/bulk")
+                        .contentType("text/csv")
+                        .content("sku,name,currency,amount,quantity\nSKU-1,Tee,USD,100,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)));
+
+        verify(productImportService, times(1)).importProducts(any(), eq(ProductImportService.Format.CSV));
     }
 
     @Test
@@ -0,0 +1,68 @@
+package com.voguethreads.catalog.metrics;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusEndpointIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    void prometheusEndpoint_ShouldExposeHotPathMetrics() throws Exception {
+        mockMvc.perform(get("/products")).andExpect(status().isOk());
+        mockMvc.perform(get("/products/prod_999999")).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, bearer("prometheus", "METRICS")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("http_server_requests_seconds_bucket{"),
+                        containsString("uri=\"/products\""),
+                        containsString("catalog_product_search_seconds_bucket{pagination=\"offset\""),
+                        containsString("catalog_product_find_by_id_seconds_count"),
+                        containsString("catalog_product_not_found_total 1.0"),
+                        containsString("catalog_jwt_validation_seconds_count"),
+                        containsString("hikaricp_connections_acquire_seconds_bucket"))));
+    }
+
+    @Test
+    void prometheusEndpoint_WithoutScrapeRole_ShouldBeForbidden() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, bearer("customer-1", "USER")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String bearer(String subject, String... roles) {
+        return "Bearer " + Jwts.builder()
+                .subject(subject)
+                .claim("roles", List.of(roles))
+                .expiration(Date.from(Instant.now().plusSeconds(3600)))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
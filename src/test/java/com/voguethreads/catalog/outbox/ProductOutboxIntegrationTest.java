@@ -0,0 +1,146 @@
+package com.voguethreads.catalog.outbox;
+
+import com.voguethreads.catalog.dto.ProductChangeResponse;
+import com.voguethreads.catalog.dto.ProductChangesResponse;
+import com.voguethreads.catalog.dto.ProductRequest;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.exception.DuplicateSkuException;
+import com.voguethreads.catalog.model.ProductChangeType;
+import com.voguethreads.catalog.repository.ProductChangeEventRepository;
+import com.voguethreads.catalog.service.ProductChangeService;
+import com.voguethreads.catalog.service.ProductService;
+import com.voguethreads.catalog.service.ProductUpsert;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.IllegalTransactionStateException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductOutboxIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeService productChangeService;
+
+    @Autowired
+    private ProductOutboxRelay relay;
+
+    @Autowired
+    private ProductOutbox productOutbox;
+
+    @Autowired
+    private ProductChangeEventRepository eventRepository;
+
+    private long since;
+
+    @BeforeEach
+    void publishEarlierEvents() {
+        // Other tests share the database; start from whatever they left behind
+        relay.relay();
+        Long maxPosition = eventRepository.findMaxPosition();
+        since = maxPosition == null ? 0 : maxPosition;
+    }
+
+    @Test
+    void productChanges_ShouldBePublishedToFeedInOrder() {
+        ProductResponse created = productService.createProduct(request("OUTBOX-1", "Outbox tee", 5));
+        long id = Long.parseLong(created.getId().substring("prod_".length()));
+        productService.updateProduct(id, request("OUTBOX-1", "Outbox tee v2", 5), null);
+        productService.decrementInventory(id, 2);
+        productService.deleteProduct(id);
+
+        assertTrue(productChangeService.listChanges(since, 100).getChanges().isEmpty(),
+                "events are not visible before the relay publishes them");
+
+        assertEquals(4, relay.relay());
+        ProductChangesResponse feed = productChangeService.listChanges(since, 100);
+
+        List<ProductChangeResponse> changes = feed.getChanges();
+        assertEquals(List.of(ProductChangeType.CREATED, ProductChangeType.UPDATED,
+                        ProductChangeType.INVENTORY_CHANGED, ProductChangeType.DELETED),
+                changes.stream().map(ProductChangeResponse::getType).toList());
+        assertTrue(changes.stream().allMatch(change -> change.getProductId().equals(created.getId())));
+        assertEquals(List.of(since + 1, since + 2, since + 3, since + 4),
+                changes.stream().map(ProductChangeResponse::getPosition).toList());
+        assertTrue(changes.get(1).getProduct().contains("\"name\":\"Outbox tee v2\""));
+        assertEquals(-2, changes.get(2).getQuantityDelta());
+        assertNull(changes.get(3).getProduct());
+        assertEquals(since + 4, feed.getNextSince());
+        assertFalse(feed.isHasMore());
+    }
+
+    @Test
+    void listChanges_WithLimit_ShouldReportMore() {
+        productService.createProduct(request("OUTBOX-2", "First", 1));
+        productService.createProduct(request("OUTBOX-3", "Second", 1));
+        relay.relay();
+
+        ProductChangesResponse first = productChangeService.listChanges(since, 1);
+        ProductChangesResponse second = productChangeService.listChanges(first.getNextSince(), 1);
+
+        assertTrue(first.isHasMore());
+        assertEquals(since + 1, first.getNextSince());
+        assertFalse(second.isHasMore());
+        assertEquals(since + 2, second.getNextSince());
+        assertEquals(0, relay.relay());
+    }
+
+    @Test
+    void rejectedChange_ShouldNotWriteEvent() {
+        productService.createProduct(request("OUTBOX-4", "Original", 1));
+        assertThrows(DuplicateSkuException.class,
+                () -> productService.createProduct(request("OUTBOX-4", "Duplicate", 1)));
+
+        assertEquals(1, relay.relay());
+    }
+
+    @Test
+    void upsertBySku_ShouldCreateThenReplaceSameProduct() {
+        ProductRequest first = request("OUTBOX-5", "Upserted", 3);
+        first.setTags(List.of("linen", "summer"));
+        ProductUpsert created = productService.upsertProductBySku("OUTBOX-5", first);
+
+        ProductRequest second = request("OUTBOX-5", "Upserted v2", 0);
+        second.setTags(List.of("sale"));
+        ProductUpsert updated = productService.upsertProductBySku("OUTBOX-5", second);
+
+        assertTrue(created.created());
+        assertFalse(updated.created());
+        assertEquals(created.product().getId(), updated.product().getId());
+        assertEquals(created.product().getCreatedAt(), updated.product().getCreatedAt());
+
+        long id = Long.parseLong(created.product().getId().substring("prod_".length()));
+        ProductResponse stored = productService.getProductById(id);
+        assertEquals("Upserted v2", stored.getName());
+        assertEquals(List.of("sale"), stored.getTags());
+        assertFalse(stored.getInventory().getInStock());
+        assertEquals(updated.product().getUpdatedAt(), stored.getUpdatedAt());
+
+        assertEquals(2, relay.relay());
+        assertEquals(List.of(ProductChangeType.CREATED, ProductChangeType.UPDATED),
+                productChangeService.listChanges(since, 100).getChanges().stream()
+                        .map(ProductChangeResponse::getType).toList());
+    }
+
+    @Test
+    void outbox_WithoutTransaction_ShouldRefuseToWrite() {
+        assertThrows(IllegalTransactionStateException.class, () -> productOutbox.productDeleted(1L));
+    }
+
+    private static ProductRequest request(String sku, String name, int quantity) {
+        return ProductRequest.builder()
+                .sku(sku)
+                .name(name)
+                .currency("USD")
+                .amount(1999)
+                .quantity(quantity)
+                .build();
+    }
+}
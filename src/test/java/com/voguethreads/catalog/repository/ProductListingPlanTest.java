@@ -0,0 +1,316 @@
+package com.voguethreads.catalog.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voguethreads.catalog.service.ProductSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every supported listing filter and sort combination is answered from an index
+ * rather than a sequential scan of products.
+ *
+ * <p>The listing queries run through {@link ProductListingRepository} against PostgreSQL
+ * migrated by Flyway, and the statements Hibernate prepares are EXPLAINed with the values it
+ * bound to them, so the plans are those of the SQL actually sent. Skipped without Docker.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ProductListingPlanTest.StatementRecorder.class)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductListingPlanTest {
+
+    private static final int ROWS = 200_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static boolean seeded;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementRecorder recorder;
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO products (sku, name, description, currency, amount, quantity, in_stock, " +
+                "category, created_at, updated_at) " +
+                "SELECT 'PLAN-' || i, 'Plan product ' || md5(i::text), 'Plan description ' || i, " +
+                "CASE WHEN i % 10 = 0 THEN 'EUR' ELSE 'USD' END, 1000 + (i * 31 % 20000), i % 50, i % 50 > 0, " +
+                "'category-' || (i % 25), now() - i * INTERVAL '1 second', now() " +
+                "FROM generate_series(1, ?) AS i", ROWS);
+        jdbcTemplate.update("INSERT INTO product_tags (product_id, tag) SELECT id, 'tag-' || (id % 200) FROM products");
+        jdbcTemplate.execute("ANALYZE products");
+        jdbcTemplate.execute("ANALYZE product_tags");
+        seeded = true;
+    }
+
+    @Test
+    void sorts_ShouldReadRowsInIndexOrder() throws Exception {
+        assertIndexed(criteria(), ProductSort.NEWEST, "idx_products_created_at_id");
+        assertIndexed(criteria(), ProductSort.PRICE_ASC, "idx_products_amount_id");
+        assertIndexed(criteria(), ProductSort.PRICE_DESC, "idx_products_amount_id");
+        assertIndexed(criteria(), ProductSort.NAME, "idx_products_name_id");
+    }
+
+    @Test
+    void sortsWithinCategory_ShouldUseCategoryPrefixedIndexes() throws Exception {
+        Criteria tops = criteria().category("category-7");
+        assertIndexed(tops, ProductSort.NEWEST, "idx_products_category_created_at_id");
+        assertIndexed(tops, ProductSort.PRICE_ASC, "idx_products_category_amount_id");
+        assertIndexed(tops, ProductSort.PRICE_DESC, "idx_products_category_amount_id");
+        assertIndexed(tops, ProductSort.NAME, "idx_products_category_name_id");
+    }
+
+    @Test
+    void priceStockAndCurrencyFilters_ShouldNotScanProducts() throws Exception {
+        assertIndexed(criteria().price(5_000, 5_200), ProductSort.PRICE_ASC, "idx_products_amount_id");
+        assertIndexed(criteria().inStock(true).currency("USD"), ProductSort.NEWEST, "idx_products_created_at_id");
+        // The planner may walk the category index or range over the facet index; either is fine
+        assertIndexed(criteria().category("category-7").inStock(true).price(5_000, 6_000), ProductSort.NEWEST, null);
+        assertIndexed(criteria().price(5_000, 5_200).currency("EUR"), ProductSort.NEWEST, null);
+    }
+
+    @Test
+    void tagFilterAndCursor_ShouldNotScanProducts() throws Exception {
+        recorder.clear();
+        productRepository.searchProducts(criteria().tags("tag-7", "tag-9").build(), false,
+                PageRequest.of(0, 20, ProductSort.NEWEST.order()));
+        assertIndexed(recorder.last("products"), "tags", null, null);
+
+        recorder.clear();
+        productRepository.searchProductsAfter(criteria().category("category-7").build(),
+                Instant.now().minusSeconds(ROWS / 2), 1L, true, 21);
+        // Filtering every row before the cursor would also use this index; the bound must start the scan
+        assertIndexed(recorder.last("products"), "category cursor", "idx_products_category_created_at_id",
+                "created_at");
+    }
+
+    private void assertIndexed(Criteria criteria, ProductSort sort, String expectedIndex) throws Exception {
+        recorder.clear();
+        productRepository.searchProducts(criteria.build(), false, PageRequest.of(0, 20, sort.order()));
+        assertIndexed(recorder.last("products"), sort + " with " + criteria.build(), expectedIndex, null);
+    }
+
+    /**
+     * Asserts the plan of {@code statement} reads products through an index, {@code expectedIndex}
+     * when given, and never scans the table. With {@code indexCondColumn}, the expected index's
+     * scan must also be bounded by that column in its {@code Index Cond}, not merely filter on it.
+     */
+    private void assertIndexed(StatementRecorder.Recorded statement, String label, String expectedIndex,
+                               String indexCondColumn) throws Exception {
+        String json;
+        try (Connection connection = POSTGRES.createConnection("");
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+            for (StatementRecorder.Binding binding : statement.bindings()) {
+                binding.setter().invoke(explain, binding.args());
+            }
+            try (ResultSet result = explain.executeQuery()) {
+                result.next();
+                json = result.getString(1);
+            }
+        }
+        List<JsonNode> nodes = new ArrayList<>();
+        collect(objectMapper.readTree(json).get(0).get("Plan"), nodes);
+        String description = label + ": " + statement.sql() + "\n" + json;
+
+        assertFalse(nodes.stream().anyMatch(node -> node.path("Node Type").asText().equals("Seq Scan")
+                && node.path("Relation Name").asText().equals("products")), description);
+        List<String> indexes = nodes.stream()
+                .filter(node -> node.has("Index Name"))
+                .map(node -> node.get("Index Name").asText())
+                .toList();
+        assertFalse(indexes.isEmpty(), description);
+        if (expectedIndex != null) {
+            assertTrue(indexes.contains(expectedIndex), description);
+        }
+        if (indexCondColumn != null) {
+            assertTrue(nodes.stream()
+                    .filter(node -> node.path("Index Name").asText().equals(expectedIndex))
+                    .anyMatch(node -> node.path("Index Cond").asText().contains(indexCondColumn)), description);
+        }
+    }
+
+    private static void collect(JsonNode plan, List<JsonNode> nodes) {
+        nodes.add(plan);
+        for (JsonNode child : plan.path("Plans")) {
+            collect(child, nodes);
+        }
+    }
+
+    private static Criteria criteria() {
+        return new Criteria();
+    }
+
+    /** Filters of one listing request; unset filters stay out of the statement. */
+    private static final class Criteria {
+        private String category;
+        private List<String> tags = List.of();
+        private Integer minAmount;
+        private Integer maxAmount;
+        private Boolean inStock;
+        private String currency;
+
+        Criteria category(String value) {
+            category = value;
+            return this;
+        }
+
+        Criteria tags(String... values) {
+            tags = List.of(values);
+            return this;
+        }
+
+        Criteria price(int min, int max) {
+            minAmount = min;
+            maxAmount = max;
+            return this;
+        }
+
+        Criteria inStock(boolean value) {
+            inStock = value;
+            return this;
+        }
+
+        Criteria currency(String value) {
+            currency = value;
+            return this;
+        }
+
+        ProductListingRepository.Criteria build() {
+            return new ProductListingRepository.Criteria(null, category, tags, tags.isEmpty() ? 0 : 1,
+                    minAmount, maxAmount, inStock, currency);
+        }
+    }
+
+    /**
+     * Wraps the data source so every statement Hibernate prepares is kept with the values bound
+     * to it, for replaying under EXPLAIN.
+     */
+    static class StatementRecorder implements BeanPostProcessor {
+
+        record Binding(Method setter, Object[] args) {
+        }
+
+        record Recorded(String sql, List<Binding> bindings) {
+        }
+
+        private final ConcurrentLinkedDeque<Recorded> statements = new ConcurrentLinkedDeque<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource) {
+                return proxy(DataSource.class, (method, args) -> {
+                    Object result = invoke(dataSource, method, args);
+                    return result instanceof Connection connection ? connection(connection) : result;
+                });
+            }
+            return bean;
+        }
+
+        void clear() {
+            statements.clear();
+        }
+
+        /** The last statement prepared that reads {@code table}. */
+        Recorded last(String table) {
+            return statements.stream()
+                    .filter(statement -> statement.sql().toLowerCase(Locale.ROOT).contains(" from " + table + " "))
+                    .reduce((first, second) -> second)
+                    .orElseThrow(() -> new AssertionError("No statement read " + table));
+        }
+
+        private Connection connection(Connection connection) {
+            return proxy(Connection.class, (method, args) -> {
+                Object result = invoke(connection, method, args);
+                if (method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement) {
+                    Recorded recorded = new Recorded((String) args[0], new CopyOnWriteArrayList<>());
+                    statements.add(recorded);
+                    return statement(statement, recorded);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement statement(PreparedStatement statement, Recorded recorded) {
+            return proxy(PreparedStatement.class, (method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2
+                        && args[0] instanceof Integer) {
+                    recorded.bindings().add(new Binding(method, args));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private interface Handler {
+            Object handle(Method method, Object[] args) throws Throwable;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, Handler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                    (proxy, method, args) -> handler.handle(method, args));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.voguethreads.catalog.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the legacy LIKE scan with the tsvector/GIN search on a large seeded catalog.
+ *
+ * <p>Runs only against a PostgreSQL database migrated by Flyway:
+ * <pre>
+ * mvn test -Pbenchmark -Dbenchmark.jdbc.url=jdbc:postgresql://localhost:5432/catalog_bench \
+ *     -Dbenchmark.jdbc.username=... -Dbenchmark.jdbc.password=...
+ * </pre>
+ * Seeded rows use the {@code BENCH-} SKU prefix and are removed afterwards.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark.jdbc.url", matches = ".+")
+class ProductSearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int ITERATIONS = 30;
+    private static final String SEARCH_TERM = "merino";
+
+    private static final String LIKE_SQL = "SELECT id FROM products p WHERE " +
+            "(LOWER(p.name) LIKE LOWER(CONCAT('%', ?, '%')) " +
+            "OR LOWER(p.description) LIKE LOWER(CONCAT('%', ?, '%')) " +
+            "OR LOWER(p.sku) LIKE LOWER(CONCAT('%', ?, '%'))) " +
+            "ORDER BY p.created_at DESC LIMIT 20";
+
+    private static final String FULL_TEXT_SQL = "SELECT id FROM products p " +
+            "WHERE p.search_vector @@ websearch_to_tsquery('english', ?) " +
+            "ORDER BY ts_rank_cd(p.search_vector, websearch_to_tsquery('english', ?)) DESC, " +
+            "p.created_at DESC, p.id DESC LIMIT 20";
+
+    private static final String[] WORDS = {
+            "cotton", "linen", "denim", "leather", "silk", "wool", "canvas", "suede",
+            "classic", "slim", "relaxed", "cropped", "oversized", "tailored", "vintage", "sport"
+    };
+
+    private Connection connection;
+
+    @BeforeAll
+    void seed() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url"),
+                System.getProperty("benchmark.jdbc.username"),
+                System.getProperty("benchmark.jdbc.password"));
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO products (sku, name, description, currency, amount, quantity, in_stock, category) " +
+                "VALUES (?, ?, ?, 'USD', ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                String word = WORDS[i % WORDS.length];
+                // Roughly 0.1% of rows mention the search term
+                String description = (i % 1000 == 0 ? SEARCH_TERM + " " : "") +
+                        word + " garment with " + WORDS[(i * 7) % WORDS.length] + " finish, item " + i;
+                insert.setString(1, "BENCH-" + i);
+                insert.setString(2, word + " " + WORDS[(i * 3) % WORDS.length] + " piece " + i);
+                insert.setString(3, description);
+                insert.setInt(4, 1000 + (i % 20000));
+                insert.setInt(5, i % 50);
+                insert.setBoolean(6, i % 50 > 0);
+                insert.setString(7, "category-" + (i % 25));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE products");
+        }
+        connection.commit();
+    }
+
+    @AfterAll
+    void cleanUp() throws SQLException {
+        if (connection == null) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM products WHERE sku LIKE 'BENCH-%'");
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Test
+    void fullTextSearch_ShouldOutperformLikeScan() throws SQLException {
+        double[] likeMillis = time(LIKE_SQL, 3);
+        double[] fullTextMillis = time(FULL_TEXT_SQL, 2);
+
+        System.out.printf("Search benchmark over %,d rows (%d iterations)%n", ROWS, ITERATIONS);
+        System.out.printf("  LIKE scan : median %8.2f ms, p95 %8.2f ms%n", percentile(likeMillis, 50), percentile(likeMillis, 95));
+        System.out.printf("  full-text : median %8.2f ms, p95 %8.2f ms%n", percentile(fullTextMillis, 50), percentile(fullTextMillis, 95));
+
+        assertTrue(percentile(fullTextMillis, 50) < percentile(likeMillis, 50),
+                "full-text search should be faster than the LIKE scan");
+    }
+
+    private double[] time(String sql, int parameterCount) throws SQLException {
+        double[] samples = new double[ITERATIONS];
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int p = 1; p <= parameterCount; p++) {
+                statement.setString(p, SEARCH_TERM);
+            }
+            // Warm-up
+            for (int i = 0; i < 5; i++) {
+                drain(statement);
+            }
+            for (int i = 0; i < ITERATIONS; i++) {
+                long start = System.nanoTime();
+                drain(statement);
+                samples[i] = (System.nanoTime() - start) / 1_000_000.0;
+            }
+        }
+        return samples;
+    }
+
+    private static void drain(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static double percentile(double[] samples, int percentile) {
+        double[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+}
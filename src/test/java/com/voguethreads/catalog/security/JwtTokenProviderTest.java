@@ -0,0 +1,77 @@
+package com.voguethreads.catalog.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "test-secret-key-for-testing-purposes-must-be-at-least-256-bits-long";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtTokenProvider jwtTokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtTokenProvider = new JwtTokenProvider(SECRET, 86400000L, 100L, meterRegistry);
+    }
+
+    @Test
+    void parseToken_WithValidToken_ShouldReturnPrincipal() {
+        String token = createToken(SECRET, Instant.now().plusSeconds(3600));
+
+        JwtPrincipal principal = jwtTokenProvider.parseToken(token);
+
+        assertEquals("user-1", principal.subject());
+        assertEquals("admin@voguethreads.com", principal.email());
+        assertEquals(List.of("USER", "ADMIN"), principal.roles());
+        assertFalse(principal.isExpired(Instant.now()));
+    }
+
+    @Test
+    void parseToken_RepeatedToken_ShouldBeServedFromCache() {
+        String token = createToken(SECRET, Instant.now().plusSeconds(3600));
+
+        JwtPrincipal first = jwtTokenProvider.parseToken(token);
+        JwtPrincipal second = jwtTokenProvider.parseToken(token);
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void parseToken_WithWrongSignature_ShouldThrowException() {
+        String token = createToken("another-secret-key-for-testing-purposes-at-least-256-bits", Instant.now().plusSeconds(3600));
+
+        assertThrows(RuntimeException.class, () -> jwtTokenProvider.parseToken(token));
+        assertTrue(jwtTokenProvider.isTokenExpired(token));
+    }
+
+    @Test
+    void isTokenExpired_WithExpiredToken_ShouldReturnTrue() {
+        String token = createToken(SECRET, Instant.now().minusSeconds(60));
+
+        assertTrue(jwtTokenProvider.isTokenExpired(token));
+    }
+
+    private String createToken(String secret, Instant expiresAt) {
+        return Jwts.builder()
+                .subject("user-1")
+                .claim("email", "admin@voguethreads.com")
+                .claim("roles", List.of("USER", "ADMIN"))
+                .expiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
@@ -0,0 +1,111 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.ReservationRequest;
+import com.voguethreads.catalog.dto.ReservationResponse;
+import com.voguethreads.catalog.exception.ReservationNotFoundException;
+import com.voguethreads.catalog.exception.ReservationStateException;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.model.ReservationStatus;
+import com.voguethreads.catalog.repository.InventoryReservationRepository;
+import com.voguethreads.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class InventoryReservationIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReservationExpiryJob reservationExpiryJob;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Test
+    void releaseReservation_ShouldReturnStockOnce() {
+        Product product = createProduct("RES-1", 5);
+        ReservationResponse reservation = reserve(product, 5);
+        assertFalse(productRepository.findById(product.getId()).orElseThrow().getInStock());
+
+        productService.releaseReservation(reservation.getReservationId());
+        productService.releaseReservation(reservation.getReservationId());
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(5, reloaded.getQuantity());
+        assertTrue(reloaded.getInStock());
+    }
+
+    @Test
+    void releaseReservation_WhenConfirmed_ShouldFailAndKeepStockTaken() {
+        Product product = createProduct("RES-2", 5);
+        ReservationResponse reservation = reserve(product, 2);
+
+        productService.confirmReservation(reservation.getReservationId());
+        productService.confirmReservation(reservation.getReservationId());
+
+        assertThrows(ReservationStateException.class,
+                () -> productService.releaseReservation(reservation.getReservationId()));
+        assertEquals(3, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void expire_ShouldReleaseOnlyUnconfirmedReservationsPastTheirTtl() {
+        Product product = createProduct("RES-3", 10);
+        ReservationResponse abandoned = reserve(product, 3);
+        ReservationResponse ordered = reserve(product, 4);
+        productService.confirmReservation(ordered.getReservationId());
+        assertNotNull(abandoned.getExpiresAt());
+
+        productService.expireReservations(Instant.now(), 100);
+        assertEquals(ReservationStatus.HELD, status(abandoned));
+        // Other tests' reservations share the database, so only this test's are checked
+        productService.expireReservations(abandoned.getExpiresAt().plusSeconds(1), 100);
+
+        assertEquals(6, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+        assertEquals(ReservationStatus.RELEASED, status(abandoned));
+        assertEquals(ReservationStatus.CONFIRMED, status(ordered));
+        assertThrows(ReservationStateException.class,
+                () -> productService.confirmReservation(abandoned.getReservationId()));
+        assertEquals(0, reservationExpiryJob.expire());
+    }
+
+    @Test
+    void releaseReservation_WithUnknownId_ShouldThrowNotFound() {
+        assertThrows(ReservationNotFoundException.class, () -> productService.releaseReservation("res_999999"));
+        assertThrows(ReservationNotFoundException.class, () -> productService.releaseReservation("cart-1"));
+    }
+
+    private ReservationResponse reserve(Product product, int quantity) {
+        return productService.reserveInventory(ReservationRequest.builder()
+                .items(List.of(new ReservationRequest.Item("prod_" + product.getId(), quantity)))
+                .build());
+    }
+
+    private ReservationStatus status(ReservationResponse reservation) {
+        return reservationRepository.findStatusById(
+                Long.parseLong(reservation.getReservationId().substring("res_".length()))).orElseThrow();
+    }
+
+    private Product createProduct(String sku, int quantity) {
+        return productRepository.save(Product.builder()
+                .sku(sku)
+                .name("Reserved " + sku)
+                .currency("USD")
+                .amount(1000)
+                .quantity(quantity)
+                .inStock(true)
+                .category("tops")
+                .build());
+    }
+}
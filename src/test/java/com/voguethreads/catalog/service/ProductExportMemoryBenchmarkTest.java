@@ -0,0 +1,109 @@
+package com.voguethreads.catalog.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports a large seeded catalog into a discarding stream and checks that the heap retained
+ * during the export stays flat. Live heap is sampled after a full GC every 100k products, so a
+ * result set or page held in memory would show up as growth between the first and last sample.
+ *
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=ProductExportMemoryBenchmarkTest [-Dbenchmark.export.rows=1000000]
+ * </pre>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:export;DB_CLOSE_DELAY=-1")
+class ProductExportMemoryBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.export.rows", 1_000_000);
+    private static final int SAMPLE_EVERY = 100_000;
+    // Fixed per-export buffers (driver fetch window, writer buffers) may sit above the baseline...
+    private static final long MAX_OVERHEAD_BYTES = 64L * 1024 * 1024;
+    // ...but must not grow between the first and the last sample
+    private static final long MAX_DRIFT_BYTES = 16L * 1024 * 1024;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void export_ShouldKeepHeapFlat() throws Exception {
+        jdbcTemplate.update("INSERT INTO products (id, sku, name, description, currency, amount, quantity, " +
+                "in_stock, category, created_at, updated_at) " +
+                "SELECT X, 'MEM-' || X, 'Memory test piece ' || X, REPEAT('long product copy ', 20), 'USD', " +
+                "1000 + MOD(X, 20000), MOD(X, 50), MOD(X, 50) > 0, 'category-' || MOD(X, 25), " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", ROWS);
+        jdbcTemplate.update("INSERT INTO product_tags (product_id, tag) " +
+                "SELECT X, 'tag-' || MOD(X, 10) FROM SYSTEM_RANGE(1, ?)", ROWS);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = liveHeap(memory);
+        LineSampler sampler = new LineSampler(memory);
+
+        long count = productExportService.export(ProductExportService.Format.NDJSON, sampler);
+
+        long overhead = sampler.peak - baseline;
+        long drift = sampler.last - sampler.first;
+        System.out.printf("Exported %,d products (%,d MB); live heap baseline %,d MB, peak +%,d KB, " +
+                        "drift %,d KB over %d samples%n",
+                count, sampler.bytes / (1024 * 1024), baseline / (1024 * 1024), overhead / 1024, drift / 1024,
+                sampler.samples);
+        assertEquals(ROWS, count);
+        assertTrue(sampler.samples >= ROWS / SAMPLE_EVERY);
+        assertTrue(overhead < MAX_OVERHEAD_BYTES, "live heap rose " + overhead / 1024 + " KB above baseline");
+        assertTrue(drift < MAX_DRIFT_BYTES, "live heap grew " + drift / 1024 + " KB during export");
+    }
+
+    private static long liveHeap(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    /** Discards the export, sampling live heap every {@link #SAMPLE_EVERY} lines. */
+    private static final class LineSampler extends OutputStream {
+
+        private final MemoryMXBean memory;
+        private long lines;
+        private long bytes;
+        private long first;
+        private long last;
+        private long peak;
+        private int samples;
+
+        private LineSampler(MemoryMXBean memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n' && ++lines % SAMPLE_EVERY == 0) {
+                long live = liveHeap(memory);
+                first = samples == 0 ? live : first;
+                last = live;
+                peak = Math.max(peak, live);
+                samples++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.voguethreads.catalog.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voguethreads.catalog.exception.CapacityExceededException;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductExportServiceTest {
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void export_Ndjson_ShouldWriteOneProductPerLineWithTags() throws Exception {
+        Product tagged = productRepository.save(product("EXPORT-1", List.of("cotton", "summer")));
+        Product untagged = productRepository.save(product("EXPORT-2", List.of()));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = productExportService.export(ProductExportService.Format.NDJSON, output);
+
+        String body = output.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(count, lines.size());
+        assertEquals(productRepository.count(), count);
+
+        JsonNode first = find(lines, "prod_" + tagged.getId());
+        assertEquals("EXPORT-1", first.get("sku").asText());
+        assertEquals(2, first.get("tags").size());
+        assertEquals(1999, first.get("price").get("amount").asInt());
+        assertEquals(0, find(lines, "prod_" + untagged.getId()).get("tags").size());
+    }
+
+    @Test
+    void export_Csv_ShouldWriteHeaderAndPipeSeparatedTags() throws Exception {
+        Product product = productRepository.save(product("EXPORT-3", List.of("linen", "sale")));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        long count = productExportService.export(ProductExportService.Format.CSV, output);
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals("id,sku,name,description,currency,amount,quantity,inStock,category,tags,createdAt,updatedAt",
+                lines.get(0));
+        assertEquals(count + 1, lines.size());
+        String row = lines.stream().filter(line -> line.startsWith("prod_" + product.getId() + ",")).findFirst()
+                .orElseThrow();
+        assertTrue(row.contains(",EXPORT-3,\"Export EXPORT-3\","), row);
+        assertTrue(row.contains(",linen|sale,"), row);
+    }
+
+    @Test
+    void acquireSlot_WhenAllSlotsTaken_ShouldRejectUntilOneIsClosed() {
+        ProductExportService.Slot first = productExportService.acquireSlot();
+        ProductExportService.Slot second = productExportService.acquireSlot();
+        ProductExportService.Slot third = null;
+        try {
+            assertThrows(CapacityExceededException.class, productExportService::acquireSlot);
+
+            // A second close must not hand out a slot that was never taken
+            first.close();
+            first.close();
+            third = productExportService.acquireSlot();
+            assertThrows(CapacityExceededException.class, productExportService::acquireSlot);
+        } finally {
+            second.close();
+            if (third != null) {
+                third.close();
+            }
+        }
+    }
+
+    private static JsonNode find(List<JsonNode> lines, String id) {
+        return lines.stream().filter(line -> line.get("id").asText().equals(id)).findFirst().orElseThrow();
+    }
+
+    private static Product product(String sku, List<String> tags) {
+        return Product.builder()
+                .sku(sku)
+                .name("Export " + sku)
+                .description("Exported, with a comma")
+                .currency("USD")
+                .amount(1999)
+                .quantity(3)
+                .inStock(true)
+                .category("tops")
+                .tags(tags)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.ProductFacetsResponse;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductFacetServiceTest {
+
+    @Autowired
+    private ProductFacetService productFacetService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void getFacets_ShouldCountCategoriesTagsPriceBandsAndStockForQuery() {
+        productRepository.saveAll(List.of(
+                product("zephyrine", "FACET-1", "facet-tops", 1999, 5, List.of("zephyrine", "summer")),
+                product("zephyrine", "FACET-2", "facet-tops", 4999, 0, List.of("zephyrine")),
+                product("zephyrine", "FACET-3", "facet-bottoms", 25000, 2, List.of("denim"))));
+
+        ProductFacetsResponse facets = productFacetService.getFacets(ProductFilter.of("zephyrine", null));
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(List.of(new ProductFacetsResponse.FacetValue("facet-tops", 2),
+                new ProductFacetsResponse.FacetValue("facet-bottoms", 1)), facets.getCategories());
+        assertEquals(new ProductFacetsResponse.FacetValue("zephyrine", 2), facets.getTags().get(0));
+        assertEquals(3, facets.getTags().size());
+
+        List<ProductFacetsResponse.PriceBand> bands = facets.getPriceBands();
+        assertEquals(5, bands.size());
+        assertEquals(new ProductFacetsResponse.PriceBand("USD", null, 2500, 1), bands.get(0));
+        assertEquals(new ProductFacetsResponse.PriceBand("USD", 2500, 5000, 1), bands.get(1));
+        assertEquals(0, bands.get(2).getCount());
+        assertEquals(new ProductFacetsResponse.PriceBand("USD", 20000, null, 1), bands.get(4));
+
+        assertEquals(new ProductFacetsResponse.StockCounts(2, 1), facets.getInStock());
+    }
+
+    @Test
+    void getFacets_WithCategory_ShouldKeepOtherCategoriesButRestrictRemainingFacets() {
+        productRepository.saveAll(List.of(
+                product("quillonite", "FACET-4", "facet-shoes", 1999, 5, List.of("quillonite", "leather")),
+                product("quillonite", "FACET-5", "facet-bags", 1999, 5, List.of("quillonite", "canvas"))));
+
+        ProductFacetsResponse facets = productFacetService.getFacets(ProductFilter.of("quillonite", "facet-shoes"));
+
+        assertEquals(2, facets.getCategories().size());
+        assertEquals(1, facets.getTotal());
+        assertEquals(List.of("leather", "quillonite"),
+                facets.getTags().stream().map(ProductFacetsResponse.FacetValue::getValue).sorted().toList());
+        assertEquals(new ProductFacetsResponse.StockCounts(1, 0), facets.getInStock());
+    }
+
+    @Test
+    void getFacets_ShouldBandPricesPerCurrency() {
+        productRepository.saveAll(List.of(
+                product("vorpalite", "FACET-6", "facet-tops", 1999, 5, List.of()),
+                product("vorpalite", "FACET-7", "facet-tops", 1999, 5, List.of(), "EUR"),
+                product("vorpalite", "FACET-8", "facet-tops", 30000, 5, List.of(), "JPY")));
+
+        List<ProductFacetsResponse.PriceBand> bands = productFacetService.getFacets(
+                ProductFilter.of("vorpalite", null)).getPriceBands();
+
+        assertEquals(15, bands.size());
+        assertEquals(List.of("EUR", "JPY", "USD"), bands.stream()
+                .map(ProductFacetsResponse.PriceBand::getCurrency).distinct().toList());
+        assertEquals(new ProductFacetsResponse.PriceBand("EUR", null, 2500, 1), bands.get(0));
+        assertEquals(new ProductFacetsResponse.PriceBand("JPY", 20000, null, 1), bands.get(9));
+        assertEquals(new ProductFacetsResponse.PriceBand("USD", null, 2500, 1), bands.get(10));
+        assertEquals(3, bands.stream().mapToLong(ProductFacetsResponse.PriceBand::getCount).sum());
+    }
+
+    @Test
+    void getFacets_WithListingFilters_ShouldCountOnlyMatchingProductsExceptOwnDimension() {
+        productRepository.saveAll(List.of(
+                product("brindlewood", "FACET-9", "facet-tops", 1999, 5, List.of("wool", "winter")),
+                product("brindlewood", "FACET-10", "facet-tops", 1999, 0, List.of("wool")),
+                product("brindlewood", "FACET-13", "facet-tops", 7999, 5, List.of("wool")),
+                product("brindlewood", "FACET-11", "facet-tops", 1999, 5, List.of("linen")),
+                product("brindlewood", "FACET-12", "facet-tops", 1999, 5, List.of("wool"), "EUR")));
+
+        ProductFacetsResponse facets = productFacetService.getFacets(ProductFilter.builder()
+                .query("brindlewood")
+                .tags(List.of("wool"))
+                .currency("usd")
+                .maxAmount(5000)
+                .inStock(true)
+                .build());
+
+        // FACET-9 is the only product the listing would return
+        assertEquals(1, facets.getTotal());
+        assertEquals(List.of(new ProductFacetsResponse.FacetValue("facet-tops", 1)), facets.getCategories());
+        assertEquals(List.of("winter", "wool"),
+                facets.getTags().stream().map(ProductFacetsResponse.FacetValue::getValue).sorted().toList());
+        // Price bands ignore the price filter and stock counts the stock filter
+        List<ProductFacetsResponse.PriceBand> bands = facets.getPriceBands();
+        assertEquals(5, bands.size());
+        assertEquals(1, bands.get(0).getCount());
+        assertEquals(1, bands.get(2).getCount());
+        assertEquals(new ProductFacetsResponse.StockCounts(1, 1), facets.getInStock());
+    }
+
+    private static Product product(String word, String sku, String category, int amount, int quantity, List<String> tags) {
+        return product(word, sku, category, amount, quantity, tags, "USD");
+    }
+
+    private static Product product(
+            String word, String sku, String category, int amount, int quantity, List<String> tags, String currency) {
+        return Product.builder()
+                .sku(sku)
+                .name("Facet " + word + " " + sku)
+                .description("Facet test product")
+                .currency(currency)
+                .amount(amount)
+                .quantity(quantity)
+                .inStock(quantity > 0)
+                .category(category)
+                .tags(tags)
+                .build();
+    }
+}
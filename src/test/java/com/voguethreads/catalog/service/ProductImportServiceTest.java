@@ -0,0 +1,87 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.cache.ProductCache;
+import com.voguethreads.catalog.dto.BulkImportResponse;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Test
+    void importProducts_Ndjson_ShouldImportValidRowsAndReportErrors() throws Exception {
+        productRepository.save(Product.builder()
+                .sku("IMP-EXISTING").name("Existing").currency("USD").amount(100).quantity(1).inStock(true).build());
+        String body = """
+                {"sku":"IMP-1","name":"Imported One","currency":"USD","amount":1000,"quantity":5,"tags":["a","b"]}
+                {"sku":"IMP-2","name":"Imported Two","currency":"USD","amount":2000,"quantity":0}
+                {"sku":"IMP-1","name":"Duplicate in file","currency":"USD","amount":1000,"quantity":5}
+                {"sku":"IMP-EXISTING","name":"Already stored","currency":"USD","amount":1000,"quantity":5}
+                {"sku":"IMP-3","name":"","currency":"USD","amount":-1,"quantity":5}
+                {not json
+                null
+                """;
+
+        BulkImportResponse result = productImportService.importProducts(stream(body), ProductImportService.Format.NDJSON);
+
+        assertEquals(7, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertEquals(5, result.getFailed());
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L),
+                result.getErrors().stream().map(BulkImportResponse.RowError::getRow).sorted().toList());
+        Product imported = productRepository.findBySku("IMP-1").orElseThrow();
+        assertTrue(imported.getInStock());
+        assertFalse(productRepository.findBySku("IMP-2").orElseThrow().getInStock());
+    }
+
+    @Test
+    void importProducts_Csv_ShouldStreamRowsInChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("sku,name,description,currency,amount,quantity,category,tags\n");
+        int rows = 1_200;
+        for (int i = 0; i < rows; i++) {
+            csv.append("CSV-").append(i).append(",\"Product, number ").append(i).append("\",")
+                    .append("Imported from CSV,USD,").append(1000 + i).append(",3,csv-import,summer|sale\n");
+        }
+        csv.append("CSV-BAD,Bad amount,,USD,abc,3,csv-import,\n");
+        AtomicInteger productEvictions = new AtomicInteger();
+        AtomicInteger pageEvictions = new AtomicInteger();
+        productCache.addEvictionListener(id -> productEvictions.incrementAndGet());
+        productCache.addPageEvictionListener(pageEvictions::incrementAndGet);
+
+        BulkImportResponse result = productImportService.importProducts(stream(csv.toString()), ProductImportService.Format.CSV);
+
+        assertEquals(rows + 1, result.getReceived());
+        assertEquals(rows, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertEquals(rows + 2, result.getErrors().get(0).getRow());
+        assertTrue(result.getRowsPerSecond() > 0);
+        // Pages drop once per 500-row chunk and again after its commit; new ids have no entries
+        assertEquals(0, productEvictions.get());
+        assertEquals(6, pageEvictions.get());
+        Product product = productRepository.findBySku("CSV-7").orElseThrow();
+        assertEquals("Product, number 7", product.getName());
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
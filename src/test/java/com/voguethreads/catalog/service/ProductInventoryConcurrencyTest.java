@@ -0,0 +1,115 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.ReservationRequest;
+import com.voguethreads.catalog.exception.InsufficientStockException;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductInventoryConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+    private static final int STOCK = 150;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void decrementInventory_HotSkuUnderContention_ShouldNeverOversell() throws Exception {
+        Long productId = createProduct("HOT-SKU-001", STOCK).getId();
+        AtomicInteger successes = new AtomicInteger();
+
+        runConcurrently(() -> {
+            if (productService.decrementInventory(productId, 1)) {
+                successes.incrementAndGet();
+            }
+            return null;
+        });
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertEquals(STOCK, successes.get());
+        assertEquals(0, product.getQuantity());
+        assertFalse(product.getInStock());
+    }
+
+    @Test
+    void reserveInventory_OverlappingCarts_ShouldStayConsistent() throws Exception {
+        Long first = createProduct("HOT-SKU-002", STOCK).getId();
+        Long second = createProduct("HOT-SKU-003", STOCK).getId();
+        AtomicInteger successes = new AtomicInteger();
+
+        // Carts list the same two products in opposite orders
+        AtomicInteger flip = new AtomicInteger();
+        runConcurrently(() -> {
+            List<ReservationRequest.Item> items = flip.getAndIncrement() % 2 == 0
+                    ? List.of(new ReservationRequest.Item("prod_" + first, 1), new ReservationRequest.Item("prod_" + second, 2))
+                    : List.of(new ReservationRequest.Item("prod_" + second, 2), new ReservationRequest.Item("prod_" + first, 1));
+            try {
+                productService.reserveInventory(ReservationRequest.builder().items(items).build());
+                successes.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                // expected once the second product sells out
+            }
+            return null;
+        });
+
+        int firstRemaining = productRepository.findById(first).orElseThrow().getQuantity();
+        int secondRemaining = productRepository.findById(second).orElseThrow().getQuantity();
+        assertEquals(STOCK / 2, successes.get());
+        assertEquals(STOCK - successes.get(), firstRemaining);
+        assertEquals(STOCK - 2 * successes.get(), secondRemaining);
+    }
+
+    private Product createProduct(String sku, int quantity) {
+        return productRepository.save(Product.builder()
+                .sku(sku)
+                .name("Hot product " + sku)
+                .currency("USD")
+                .amount(1999)
+                .quantity(quantity)
+                .inStock(quantity > 0)
+                .category("test")
+                .build());
+    }
+
+    private void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        task.call();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
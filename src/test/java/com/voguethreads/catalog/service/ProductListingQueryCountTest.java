@@ -0,0 +1,178 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductListingQueryCountTest {
+
+    private static final String CATEGORY = "query-count";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (productRepository.findBySku("QC-0").isEmpty()) {
+            List<Product> products = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                products.add(Product.builder()
+                        .sku("QC-" + i)
+                        .name("Query count product " + i)
+                        .description("Long description for product " + i)
+                        .currency("USD")
+                        .amount(1000 + i)
+                        .quantity(10)
+                        .inStock(true)
+                        .category(CATEGORY)
+                        .tags(List.of("tag-a-" + i, "tag-b-" + i))
+                        .build());
+            }
+            productRepository.saveAll(products);
+        }
+    }
+
+    @Test
+    void listProducts_StatementCount_ShouldNotGrowWithPageSize() {
+        long smallPage = countStatements(5);
+        long largePage = countStatements(60);
+
+        assertEquals(smallPage, largePage);
+        // Page query and one batched tag query; totals are not counted unless asked for
+        assertTrue(largePage <= 2, "expected at most 2 statements but was " + largePage);
+    }
+
+    @Test
+    void listProducts_WithSparseFields_ShouldSkipDescriptionAndTagQuery() {
+        statistics.clear();
+        PagedResponse<ProductResponse> page = productService.listProducts(1, 10, ProductFilter.of(null, CATEGORY), null, "name,price", false);
+
+        assertEquals(10, page.getItems().size());
+        ProductResponse item = page.getItems().get(0);
+        assertNotNull(item.getName());
+        assertNull(item.getDescription());
+        assertNull(item.getTags());
+        // Page query only, and no entities in the persistence context
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void listProducts_WithTags_ShouldMatchAnyOrAllInOneQuery() {
+        statistics.clear();
+        PagedResponse<ProductResponse> any = productService.listProducts(1, 10,
+                ProductFilter.of(null, CATEGORY, List.of("tag-a-1", "tag-a-2", "missing"), "any"), null, null, false);
+        assertEquals(List.of("QC-2", "QC-1"), skus(any.getItems()));
+        assertEquals(2, any.getTotalItems());
+        // The tag filter is a subquery, not one join per tag
+        assertTrue(statistics.getPrepareStatementCount() <= 3);
+
+        PagedResponse<ProductResponse> all = productService.listProducts(1, 10,
+                ProductFilter.of(null, CATEGORY, List.of("tag-a-1", "tag-b-1"), "all"), null, null, false);
+        assertEquals(List.of("QC-1"), skus(all.getItems()));
+        PagedResponse<ProductResponse> none = productService.listProducts(1, 10,
+                ProductFilter.of(null, CATEGORY, List.of("tag-a-1", "tag-b-2"), "all"), null, null, false);
+        assertEquals(0, none.getTotalItems());
+
+        ProductFilter cursorFilter = ProductFilter.of(null, CATEGORY, List.of("tag-a-3", "tag-b-4", "tag-a-5"), "any");
+        PagedResponse<ProductResponse> first = productService.listProductsByCursor(null, 2, cursorFilter, null);
+        PagedResponse<ProductResponse> second = productService.listProductsByCursor(first.getNextCursor(), 2,
+                cursorFilter, null);
+        assertEquals(List.of("QC-5", "QC-4"), skus(first.getItems()));
+        assertEquals(List.of("QC-3"), skus(second.getItems()));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void listProducts_Totals_ShouldBeCountedOnlyWhenRequested() {
+        ProductFilter filter = ProductFilter.of(null, CATEGORY, List.of("tag-a-7", "tag-a-8", "tag-a-9"), "any");
+
+        statistics.clear();
+        PagedResponse<ProductResponse> counted = productService.listProducts(1, 2, filter, null, "name", true);
+        assertEquals(2, statistics.getPrepareStatementCount(), "page and count query");
+        assertEquals(3, counted.getTotalItems());
+        assertEquals(2, counted.getTotalPages());
+        assertTrue(counted.getTotalExact());
+        assertTrue(counted.getHasNext());
+
+        // Same filter within the TTL: the earlier count, flagged as approximate
+        statistics.clear();
+        PagedResponse<ProductResponse> cached = productService.listProducts(1, 2, filter, null, "name", false);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, cached.getTotalItems());
+        assertFalse(cached.getTotalExact());
+
+        // The last page knows its total without counting
+        PagedResponse<ProductResponse> last = productService.listProducts(2, 2, filter, null, "name", false);
+        assertEquals(3, last.getTotalItems());
+        assertTrue(last.getTotalExact());
+        assertFalse(last.getHasNext());
+
+        PagedResponse<ProductResponse> uncounted = productService.listProducts(1, 2,
+                ProductFilter.of(null, CATEGORY, List.of("tag-b-7", "tag-b-8", "tag-b-9"), "any"), null, "name", false);
+        assertNull(uncounted.getTotalItems());
+        assertNull(uncounted.getTotalPages());
+        assertNull(uncounted.getTotalExact());
+        assertTrue(uncounted.getHasNext());
+    }
+
+    @Test
+    void listProducts_WithPriceStockAndCurrency_ShouldFilterAndSortInTheDatabase() {
+        ProductFilter range = ProductFilter.builder()
+                .category(CATEGORY).minAmount(1010).maxAmount(1014).inStock(true).currency("usd").build();
+
+        PagedResponse<ProductResponse> cheapest = productService.listProducts(1, 3, range, "price_asc", "sku", true);
+        assertEquals(List.of("QC-10", "QC-11", "QC-12"), skus(cheapest.getItems()));
+        assertEquals(5, cheapest.getTotalItems());
+        PagedResponse<ProductResponse> dearest = productService.listProducts(1, 2, range, "price_desc", "sku", false);
+        assertEquals(List.of("QC-14", "QC-13"), skus(dearest.getItems()));
+        PagedResponse<ProductResponse> byName = productService.listProducts(1, 10,
+                ProductFilter.builder().category(CATEGORY).minAmount(1009).maxAmount(1011).build(), "name", "sku", false);
+        assertEquals(List.of("QC-10", "QC-11", "QC-9"), skus(byName.getItems()));
+
+        PagedResponse<ProductResponse> cursorPage = productService.listProductsByCursor(null, 10, range, "sku");
+        assertEquals(List.of("QC-14", "QC-13", "QC-12", "QC-11", "QC-10"), skus(cursorPage.getItems()));
+
+        assertEquals(0, productService.listProducts(1, 10,
+                ProductFilter.builder().category(CATEGORY).inStock(false).build(), null, null, true).getTotalItems());
+        assertEquals(0, productService.listProducts(1, 10,
+                ProductFilter.builder().category(CATEGORY).currency("EUR").build(), null, null, true).getTotalItems());
+    }
+
+    private static List<String> skus(List<ProductResponse> items) {
+        return items.stream().map(ProductResponse::getSku).toList();
+    }
+
+    private long countStatements(int pageSize) {
+        statistics.clear();
+        PagedResponse<ProductResponse> page = productService.listProducts(1, pageSize, ProductFilter.of(null, CATEGORY), null, null, false);
+        assertEquals(pageSize, page.getItems().size());
+        assertEquals(2, page.getItems().get(0).getTags().size());
+        assertNotNull(page.getItems().get(0).getDescription());
+        assertEquals(0, statistics.getEntityLoadCount());
+        return statistics.getPrepareStatementCount();
+    }
+}
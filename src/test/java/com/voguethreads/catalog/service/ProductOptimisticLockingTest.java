@@ -0,0 +1,149 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.ProductPatchRequest;
+import com.voguethreads.catalog.dto.ProductRequest;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.exception.PreconditionFailedException;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import com.voguethreads.catalog.web.ProductETags;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.voguethreads.catalog.service.ProductOptimisticLockingTest$RecordingStatementInspector")
+class ProductOptimisticLockingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void patchProduct_ShouldUpdateOnlyChangedColumnsAndBumpVersion() {
+        Product product = productRepository.save(product("LOCK-1"));
+        long version = product.getVersion();
+
+        RecordingStatementInspector.STATEMENTS.clear();
+        ProductResponse response = productService.patchProduct(product.getId(),
+                ProductPatchRequest.builder().name("Renamed LOCK-1").build(), null);
+
+        String update = RecordingStatementInspector.STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.startsWith("update products"))
+                .findFirst().orElseThrow();
+        assertTrue(update.contains("name=?"), update);
+        assertFalse(update.contains("description"), update);
+        assertFalse(update.contains("quantity"), update);
+        assertTrue(update.contains("version=?"), update);
+        // Unchanged tags are not deleted and re-inserted
+        assertTrue(RecordingStatementInspector.STATEMENTS.stream().map(sql -> sql.toLowerCase(Locale.ROOT))
+                .noneMatch(sql -> sql.startsWith("delete from product_tags") || sql.startsWith("insert into product_tags")));
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Renamed LOCK-1", response.getName());
+        assertEquals("Renamed LOCK-1", reloaded.getName());
+        assertEquals("Locked description", reloaded.getDescription());
+        assertEquals(version + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void updateProduct_WithETagFromBeforeInventoryChange_ShouldFail() {
+        Product product = productRepository.save(product("LOCK-2"));
+        String eTag = ProductETags.forProduct("prod_" + product.getId(), product.getVersion());
+
+        assertTrue(productService.decrementInventory(product.getId(), 2));
+
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(
+                product.getId(), request("LOCK-2", 10), ifMatch(eTag)));
+        assertEquals(8, productRepository.findById(product.getId()).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void updateProduct_WithCurrentETag_ShouldApplyAndChangeETag() {
+        Product product = productRepository.save(product("LOCK-3"));
+        String eTag = ProductETags.forProduct("prod_" + product.getId(), product.getVersion());
+
+        ProductResponse response = productService.updateProduct(product.getId(), request("LOCK-3", 4), ifMatch(eTag));
+
+        assertEquals(4, response.getInventory().getQuantity());
+        assertNotEquals(eTag, ProductETags.forProduct(response.getId(), response.getVersion()));
+    }
+
+    @Test
+    void updateProduct_WhenConcurrentEditCommitsAfterCheck_ShouldFailInsteadOfOverwriting() {
+        Product product = productRepository.save(product("LOCK-4"));
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // The other admin's edit commits between our read and our write
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(
+                product.getId(), request("LOCK-4", 1), version -> {
+                    concurrent.executeWithoutResult(status -> productService.patchProduct(product.getId(),
+                            ProductPatchRequest.builder().description("Other admin's edit").build(), null));
+                    return true;
+                }));
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Other admin's edit", reloaded.getDescription());
+        assertEquals(10, reloaded.getQuantity());
+    }
+
+    private static Predicate<ProductVersion> ifMatch(String eTag) {
+        return version -> ProductETags.matches(eTag, version.id(), version.version());
+    }
+
+    private static ProductRequest request(String sku, int quantity) {
+        return ProductRequest.builder()
+                .sku(sku)
+                .name("Locked " + sku)
+                .description("Edited description")
+                .currency("USD")
+                .amount(2999)
+                .quantity(quantity)
+                .category("tops")
+                .tags(List.of("cotton"))
+                .build();
+    }
+
+    private static Product product(String sku) {
+        return Product.builder()
+                .sku(sku)
+                .name("Locked " + sku)
+                .description("Locked description")
+                .currency("USD")
+                .amount(1999)
+                .quantity(10)
+                .inStock(true)
+                .category("tops")
+                .tags(List.of("cotton"))
+                .build();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
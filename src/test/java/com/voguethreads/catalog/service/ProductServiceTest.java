@@ -1,22 +1,51 @@
 package com.voguethreads.catalog.service;
 
+import com.voguethreads.catalog.cache.ProductCache;
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductBatchResponse;
 import com.voguethreads.catalog.dto.ProductRequest;
 import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.dto.ReservationRequest;
+import com.voguethreads.catalog.dto.ReservationResponse;
 import com.voguethreads.catalog.exception.DuplicateSkuException;
+import com.voguethreads.catalog.exception.InsufficientStockException;
+import com.voguethreads.catalog.exception.InvalidRequestException;
+import com.voguethreads.catalog.exception.PreconditionFailedException;
 import com.voguethreads.catalog.exception.ProductNotFoundException;
 import com.voguethreads.catalog.mapper.ProductMapper;
+import com.voguethreads.catalog.metrics.CatalogMetrics;
+import com.voguethreads.catalog.model.InventoryReservation;
 import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.model.ProductChangeType;
+import com.voguethreads.catalog.outbox.ProductOutbox;
+import com.voguethreads.catalog.repository.InventoryReservationRepository;
+import com.voguethreads.catalog.repository.ProductListingRepository;
 import com.voguethreads.catalog.repository.ProductRepository;
+import com.voguethreads.catalog.repository.ProductSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +57,23 @@ class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private CatalogMetrics catalogMetrics = new CatalogMetrics(meterRegistry);
+
+    @Mock
+    private ProductOutbox productOutbox;
+
+    @Mock
+    private ProductCountService productCountService;
+
+    @Mock
+    private InventoryReservationRepository reservationRepository;
+
     @InjectMocks
     private ProductService productService;
 
@@ -37,26 +83,42 @@ class ProductServiceTest {
         Product product = createTestProduct();
         ProductResponse response = createTestProductResponse();
 
-        when(productRepository.existsBySku(request.getSku())).thenReturn(false);
         when(productMapper.toEntity(request)).thenReturn(product);
-        when(productRepository.save(product)).thenReturn(product);
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
         when(productMapper.toResponse(product)).thenReturn(response);
 
         ProductResponse result = productService.createProduct(request);
 
         assertNotNull(result);
         assertEquals("prod_1", result.getId());
-        verify(productRepository).save(product);
+        verify(productRepository).saveAndFlush(product);
+        verify(productOutbox).productChanged(ProductChangeType.CREATED, 1L, response);
     }
 
     @Test
     void createProduct_WithDuplicateSku_ShouldThrowException() {
         ProductRequest request = createTestProductRequest();
+        Product product = createTestProduct();
 
-        when(productRepository.existsBySku(request.getSku())).thenReturn(true);
+        when(productMapper.toEntity(request)).thenReturn(product);
+        when(productRepository.saveAndFlush(product)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, "PUBLIC.PRODUCTS_SKU_KEY_INDEX_C")));
 
         assertThrows(DuplicateSkuException.class, () -> productService.createProduct(request));
-        verify(productRepository, never()).save(any());
+        verifyNoInteractions(productOutbox);
+    }
+
+    @Test
+    void createProduct_WithOtherConstraintViolation_ShouldRethrow() {
+        ProductRequest request = createTestProductRequest();
+        Product product = createTestProduct();
+
+        when(productMapper.toEntity(request)).thenReturn(product);
+        when(productRepository.saveAndFlush(product)).thenThrow(new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", null, "products_name_not_null")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> productService.createProduct(request));
+        verifyNoInteractions(productOutbox);
     }
 
     @Test
@@ -73,6 +135,121 @@ class ProductServiceTest {
         assertEquals("prod_1", result.getId());
     }
 
+    @Test
+    void getProductById_CalledTwice_ShouldHitDatabaseOnce() {
+        Product product = createTestProduct();
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(createTestProductResponse());
+
+        productService.getProductById(1L);
+        ProductResponse result = productService.getProductById(1L);
+
+        assertEquals("prod_1", result.getId());
+        verify(productRepository, times(1)).findById(1L);
+        assertEquals(1, meterRegistry.get("catalog.product.find-by-id").timer().count());
+    }
+
+    @Test
+    void updateProduct_ShouldEvictCachedProduct() {
+        Product product = createTestProduct();
+        ProductRequest request = createTestProductRequest();
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.saveAndFlush(product)).thenReturn(product);
+        when(productMapper.toResponse(product)).thenReturn(createTestProductResponse());
+
+        productService.getProductById(1L);
+        productService.updateProduct(1L, request, null);
+        productService.getProductById(1L);
+
+        verify(productCache).evict(1L);
+        verify(productRepository, times(3)).findById(1L);
+    }
+
+    @Test
+    void updateProduct_WhenPreconditionFails_ShouldNotWrite() {
+        Product product = createTestProduct();
+        product.setUpdatedAt(Instant.parse("2024-01-02T00:00:00Z"));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        assertThrows(PreconditionFailedException.class, () -> productService.updateProduct(
+                1L, createTestProductRequest(), version -> !version.updatedAt().equals(product.getUpdatedAt())));
+
+        verify(productRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(productOutbox, productCache);
+    }
+
+    @Test
+    void getProductsByIds_ShouldUseCacheThenOneQueryAndKeepRequestOrder() {
+        ReflectionTestUtils.setField(productService, "maxBatchIds", 100);
+        Product cached = createTestProduct();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(cached));
+        when(productMapper.toResponse(cached)).thenReturn(createTestProductResponse());
+        productService.getProductById(1L);
+
+        ProductSummary second = createTestSummary(2L, Instant.now());
+        when(productRepository.findSummariesByIdIn(List.of(2L, 99L), true)).thenReturn(List.of(second));
+        when(productRepository.findTagsByProductIdIn(List.of(2L)))
+                .thenReturn(List.<Object[]>of(new Object[]{2L, "linen"}));
+        when(productMapper.toResponse(second, List.of("linen")))
+                .thenReturn(ProductResponse.builder().id("prod_2").build());
+
+        ProductBatchResponse result = productService.getProductsByIds(
+                List.of("prod_2", "1", "abc", "prod_99", " prod_2"));
+
+        assertEquals(List.of("prod_2", "1", "abc", "prod_99", "prod_2"),
+                result.getItems().stream().map(ProductBatchResponse.Item::getId).toList());
+        assertEquals("prod_2", result.getItems().get(0).getProduct().getId());
+        assertEquals("prod_1", result.getItems().get(1).getProduct().getId());
+        assertEquals("PRODUCT_NOT_FOUND", result.getItems().get(2).getError());
+        assertEquals("PRODUCT_NOT_FOUND", result.getItems().get(3).getError());
+        assertNull(result.getItems().get(3).getProduct());
+        assertEquals("prod_2", result.getItems().get(4).getProduct().getId());
+        verify(productRepository, times(1)).findSummariesByIdIn(any(), anyBoolean());
+        assertEquals(1, meterRegistry.get("catalog.product.find-by-ids").timer().count());
+    }
+
+    @Test
+    void getProductsByIds_WithTooManyIds_ShouldThrowException() {
+        ReflectionTestUtils.setField(productService, "maxBatchIds", 2);
+
+        assertThrows(InvalidRequestException.class,
+                () -> productService.getProductsByIds(List.of("1", "2", "3")));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductVersion_WhenNotCached_ShouldUseVersionLookup() {
+        Instant updatedAt = Instant.parse("2024-01-02T00:00:00Z");
+        ProductRepository.RowVersion row = mock(ProductRepository.RowVersion.class);
+        when(row.getVersion()).thenReturn(3L);
+        when(row.getUpdatedAt()).thenReturn(updatedAt);
+        when(productRepository.findRowVersionById(1L)).thenReturn(Optional.of(row));
+
+        ProductVersion version = productService.getProductVersion("prod_1");
+
+        assertEquals(new ProductVersion("prod_1", 3L, updatedAt), version);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void getProductVersion_WhenCached_ShouldNotQuery() {
+        Product product = createTestProduct();
+        ProductResponse response = createTestProductResponse();
+        response.setUpdatedAt(Instant.parse("2024-01-02T00:00:00Z"));
+        response.setVersion(2L);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toResponse(product)).thenReturn(response);
+        productService.getProductById(1L);
+
+        ProductVersion version = productService.getProductVersion("1");
+
+        assertEquals(2L, version.version());
+        assertEquals(response.getUpdatedAt(), version.updatedAt());
+        verify(productRepository, never()).findRowVersionById(any());
+    }
+
     @Test
     void getProductById_WithInvalidId_ShouldThrowException() {
         when(productRepository.findById(999L)).thenReturn(Optional.empty());
@@ -87,6 +264,8 @@ class ProductServiceTest {
         productService.deleteProduct(1L);
 
         verify(productRepository).deleteById(1L);
+        verify(productOutbox).productDeleted(1L);
+        verify(productCache).evict(1L);
     }
 
     @Test
@@ -99,29 +278,288 @@ class ProductServiceTest {
 
     @Test
     void decrementInventory_WithSufficientStock_ShouldReturnTrue() {
-        Product product = createTestProduct();
-        product.setQuantity(100);
-
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(productRepository.save(any())).thenReturn(product);
+        when(productRepository.decrementQuantity(eq(1L), eq(10), any())).thenReturn(1);
 
         boolean result = productService.decrementInventory(1L, 10);
 
         assertTrue(result);
-        verify(productRepository).save(any());
+        verify(productRepository, never()).save(any());
+        verify(productOutbox).inventoryChanged(1L, -10);
+        verify(productCache).evict(1L);
+        assertEquals(1, meterRegistry.get("catalog.inventory.decrement").tag("outcome", "applied").timer().count());
     }
 
     @Test
     void decrementInventory_WithInsufficientStock_ShouldReturnFalse() {
-        Product product = createTestProduct();
-        product.setQuantity(5);
-
-        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.decrementQuantity(eq(1L), eq(10), any())).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
 
         boolean result = productService.decrementInventory(1L, 10);
 
         assertFalse(result);
-        verify(productRepository, never()).save(any());
+        verify(productCache, never()).evict(any());
+        verifyNoInteractions(productOutbox);
+        assertEquals(1, meterRegistry.get("catalog.inventory.decrement").tag("outcome", "insufficient").timer().count());
+    }
+
+    @Test
+    void decrementInventory_WithUnknownProduct_ShouldThrowException() {
+        when(productRepository.decrementQuantity(eq(999L), eq(1), any())).thenReturn(0);
+        when(productRepository.existsById(999L)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.decrementInventory(999L, 1));
+    }
+
+    @Test
+    void reserveInventory_ShouldMergeItemsAndUpdateInIdOrder() {
+        ReservationRequest request = ReservationRequest.builder()
+                .items(List.of(
+                        new ReservationRequest.Item("prod_7", 1),
+                        new ReservationRequest.Item("3", 2),
+                        new ReservationRequest.Item("prod_7", 4)))
+                .build();
+        when(productRepository.decrementQuantity(any(), any(), any())).thenReturn(1);
+        when(reservationRepository.save(any())).thenAnswer(invocation -> {
+            InventoryReservation reservation = invocation.getArgument(0);
+            reservation.setId(12L);
+            return reservation;
+        });
+
+        ReservationResponse result = productService.reserveInventory(request);
+
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).decrementQuantity(eq(3L), eq(2), any());
+        inOrder.verify(productRepository).decrementQuantity(eq(7L), eq(5), any());
+        assertEquals(List.of("prod_3", "prod_7"),
+                result.getItems().stream().map(ReservationResponse.ReservedItem::getProductId).toList());
+        assertEquals("res_12", result.getReservationId());
+        assertNull(result.getExpiresAt());
+    }
+
+    @Test
+    void reserveInventory_WithUnavailableItem_ShouldThrowException() {
+        ReservationRequest request = ReservationRequest.builder()
+                .items(List.of(new ReservationRequest.Item("prod_1", 1), new ReservationRequest.Item("prod_2", 50)))
+                .build();
+        when(productRepository.decrementQuantity(eq(1L), eq(1), any())).thenReturn(1);
+        when(productRepository.decrementQuantity(eq(2L), eq(50), any())).thenReturn(0);
+        when(productRepository.existsById(2L)).thenReturn(true);
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> productService.reserveInventory(request));
+        assertEquals("prod_2", ex.getProductId());
+    }
+
+    @Test
+    void reserveInventory_WhenMergedQuantityOverflows_ShouldRejectBeforeTakingStock() {
+        ReservationRequest request = ReservationRequest.builder()
+                .items(List.of(new ReservationRequest.Item("prod_1", Integer.MAX_VALUE),
+                        new ReservationRequest.Item("prod_1", 2)))
+                .build();
+
+        assertThrows(InvalidRequestException.class, () -> productService.reserveInventory(request));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void listProductsByCursor_WithMoreRows_ShouldReturnNextCursor() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        ProductSummary first = createTestSummary(1L, Instant.parse("2024-01-02T00:00:00Z"));
+        ProductSummary second = createTestSummary(2L, Instant.parse("2024-01-01T00:00:00Z"));
+        ProductSummary extra = createTestSummary(3L, Instant.parse("2023-12-31T00:00:00Z"));
+
+        when(productRepository.searchProductsAfter(ProductFilter.of(null, null).criteria(), null, null, true, 3))
+                .thenReturn(List.of(first, second, extra));
+        when(productMapper.toResponse(any(ProductSummary.class), any())).thenReturn(createTestProductResponse());
+
+        PagedResponse<ProductResponse> result = productService.listProductsByCursor(null, null, ProductFilter.of(null, null), null);
+
+        assertEquals(2, result.getItems().size());
+        assertNull(result.getTotalItems());
+        ProductCursor next = ProductCursor.decode(result.getNextCursor());
+        assertEquals(2L, next.id());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), next.createdAt());
+        verify(productRepository).findTagsByProductIdIn(List.of(1L, 2L));
+    }
+
+    @Test
+    void listProductsByCursor_WithCursor_ShouldSeekAfterPosition() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        Instant createdAt = Instant.parse("2024-01-01T00:00:00Z");
+        String cursor = new ProductCursor(createdAt, 42L).encode();
+
+        when(productRepository.searchProductsAfter(ProductFilter.of(null, "tops").criteria(), createdAt, 42L, true, 21))
+                .thenReturn(List.of(createTestSummary(41L, createdAt)));
+        when(productMapper.toResponse(any(ProductSummary.class), any())).thenReturn(createTestProductResponse());
+
+        PagedResponse<ProductResponse> result = productService.listProductsByCursor(cursor, null, ProductFilter.of(null, "tops"), null);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void listProductsByCursor_WithMalformedCursor_ShouldThrowException() {
+        assertThrows(InvalidRequestException.class,
+                () -> productService.listProductsByCursor("not-a-cursor", 10, ProductFilter.of(null, null), null));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void listProducts_ShouldAttachTagsLoadedForWholePage() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        ProductSummary first = createTestSummary(1L, Instant.parse("2024-01-02T00:00:00Z"));
+        ProductSummary second = createTestSummary(2L, Instant.parse("2024-01-01T00:00:00Z"));
+
+        when(productRepository.searchProducts(eq(ProductFilter.of(null, null).criteria()), eq(true), any()))
+                .thenReturn(new PageImpl<>(List.of(first, second)));
+        when(productRepository.findTagsByProductIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(new Object[]{1L, "cotton"}, new Object[]{1L, "summer"}));
+        when(productMapper.toResponse(any(ProductSummary.class), any())).thenReturn(createTestProductResponse());
+
+        productService.listProducts(1, null, ProductFilter.of(null, null), null, null, false);
+
+        verify(productMapper).toResponse(first, List.of("cotton", "summer"));
+        verify(productMapper).toResponse(second, List.of());
+    }
+
+    @Test
+    void listProducts_WithFields_ShouldSkipDescriptionAndTagQuery() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        ProductSummary summary = createTestSummary(1L, Instant.parse("2024-01-01T00:00:00Z"));
+
+        when(productRepository.searchProducts(eq(ProductFilter.of(null, null).criteria()), eq(false), any()))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+        when(productMapper.toResponse(eq(summary), any())).thenReturn(createTestProductResponse());
+
+        PagedResponse<ProductResponse> result = productService.listProducts(1, null, ProductFilter.of(null, null), null, "name, price", false);
+
+        ProductResponse item = result.getItems().get(0);
+        assertEquals("prod_1", item.getId());
+        assertEquals("Test Product", item.getName());
+        assertEquals(2999, item.getPrice().getAmount());
+        assertNull(item.getSku());
+        assertNull(item.getDescription());
+        assertNull(item.getInventory());
+        assertNull(item.getTags());
+        verify(productRepository, never()).findTagsByProductIdIn(any());
+    }
+
+    @Test
+    void listProducts_WithUnknownField_ShouldThrowException() {
+        assertThrows(InvalidRequestException.class,
+                () -> productService.listProducts(1, 20, ProductFilter.of(null, null), null, "name,secret", false));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void listProducts_WithRelevanceSortAndFullTextDisabled_ShouldUseRankedFallback() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+
+        when(productRepository.searchProductsByRelevance(ProductFilter.of("shirt", null).criteria(), true, PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(createTestSummary(1L, Instant.now()))));
+        when(productMapper.toResponse(any(ProductSummary.class), any())).thenReturn(createTestProductResponse());
+
+        PagedResponse<ProductResponse> result = productService.listProducts(1, null, ProductFilter.of("shirt", null), "relevance", null, false);
+
+        assertEquals(1, result.getItems().size());
+        verify(productRepository, never()).fullTextSearchIdsByRelevance(any(), any());
+    }
+
+    @Test
+    void listProducts_WithQueryAndFullTextEnabled_ShouldUseFullTextSearch() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(productService, "fullTextSearchEnabled", true);
+
+        when(productRepository.fullTextSearchIdsByRelevance(ProductFilter.of("shirt", "tops").criteria(), PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of()));
+        when(productRepository.fullTextSearchIds(ProductFilter.of("shirt", "tops").criteria(), PageRequest.of(0, 20, ProductSort.NEWEST.columnOrder())))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        productService.listProducts(1, null, ProductFilter.of("shirt", "tops"), "relevance", null, false);
+        productService.listProducts(1, null, ProductFilter.of("shirt", "tops"), null, null, false);
+
+        verify(productRepository).fullTextSearchIdsByRelevance(ProductFilter.of("shirt", "tops").criteria(), PageRequest.of(0, 20));
+        verify(productRepository).fullTextSearchIds(ProductFilter.of("shirt", "tops").criteria(), PageRequest.of(0, 20, ProductSort.NEWEST.columnOrder()));
+        verify(productRepository, never()).searchProducts(any(), anyBoolean(), any());
+        verify(productRepository, never()).findSummariesByIdIn(any(), anyBoolean());
+    }
+
+    @Test
+    void listProducts_WithFullTextMatches_ShouldKeepRankedOrder() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(productService, "fullTextSearchEnabled", true);
+        ProductSummary first = createTestSummary(1L, Instant.now());
+        ProductSummary second = createTestSummary(2L, Instant.now());
+
+        when(productRepository.fullTextSearchIdsByRelevance(ProductFilter.of("shirt", null).criteria(), PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(List.of(2L, 1L), PageRequest.of(0, 20), 2));
+        when(productRepository.findSummariesByIdIn(List.of(2L, 1L), true)).thenReturn(List.of(first, second));
+        when(productMapper.toResponse(any(ProductSummary.class), any()))
+                .thenAnswer(invocation -> ProductResponse.builder()
+                        .id("prod_" + invocation.<ProductSummary>getArgument(0).id())
+                        .build());
+
+        PagedResponse<ProductResponse> result = productService.listProducts(1, null, ProductFilter.of("shirt", null), "relevance", null, false);
+
+        assertEquals(List.of("prod_2", "prod_1"), result.getItems().stream().map(ProductResponse::getId).toList());
+        assertEquals(2L, result.getTotalItems());
+    }
+
+    @Test
+    void listProducts_WithUnsupportedSort_ShouldThrowException() {
+        assertThrows(InvalidRequestException.class,
+                () -> productService.listProducts(1, 20, ProductFilter.of(null, null), "popularity", null, false));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void listProducts_WithTooManyTags_ShouldThrowException() {
+        ReflectionTestUtils.setField(productService, "maxTags", 2);
+        ProductFilter filter = ProductFilter.of(null, null, List.of("a", "b", " c ", "a", ""), "all");
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> productService.listProductsByCursor(null, 10, filter, null));
+        assertEquals("At most 2 tags are allowed per request", exception.getMessage());
+        assertEquals(List.of("a", "b", "c"), filter.tags());
+        assertThrows(InvalidRequestException.class,
+                () -> ProductFilter.of(null, null, List.of("a"), "some"));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void listProducts_WithInvalidPriceRange_ShouldThrowException() {
+        assertThrows(InvalidRequestException.class,
+                () -> productService.listProducts(1, 20, ProductFilter.builder().minAmount(500).maxAmount(100).build(),
+                        "price_asc", null, false));
+        assertThrows(InvalidRequestException.class, () -> ProductFilter.builder().minAmount(-1).build());
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void listProducts_WithPriceSort_ShouldPassFiltersAndIndexedOrder() {
+        ReflectionTestUtils.setField(productService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(productService, "maxPageSize", 100);
+        ProductFilter filter = ProductFilter.builder()
+                .category("tops").minAmount(1000).maxAmount(5000).inStock(true).currency(" eur ").build();
+        when(productRepository.searchProducts(
+                new ProductListingRepository.Criteria(null, "tops", List.of(), 0, 1000, 5000, true, "EUR"), true,
+                PageRequest.of(0, 20, ProductSort.PRICE_DESC.order())))
+                .thenReturn(new PageImpl<>(List.of()));
+
+        PagedResponse<ProductResponse> result = productService.listProducts(1, null, filter, "price_desc", null, false);
+
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(0L, result.getTotalItems());
+        assertEquals(Sort.by(Sort.Order.desc("amount"), Sort.Order.desc("id")), ProductSort.PRICE_DESC.order());
+        assertEquals(Sort.by(Sort.Order.desc("created_at"), Sort.Order.desc("id")), ProductSort.NEWEST.columnOrder());
     }
 
     private ProductRequest createTestProductRequest() {
@@ -150,6 +588,11 @@ class ProductServiceTest {
                 .build();
     }
 
+    private ProductSummary createTestSummary(Long id, Instant createdAt) {
+        return new ProductSummary(id, "TEST-00" + id, "Test Product", "Test Description",
+                "USD", 2999, 100, true, "test", createdAt, createdAt, 0L);
+    }
+
     private ProductResponse createTestProductResponse() {
         return ProductResponse.builder()
                 .id("prod_1")
@@ -0,0 +1,72 @@
+package com.voguethreads.catalog.service;
+
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductRequest;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.outbox.ProductOutboxRelay;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "snapshot.enabled=true")
+class ProductSnapshotServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSnapshotService snapshotService;
+
+    @Autowired
+    private ProductOutboxRelay relay;
+
+    @Test
+    void browseProducts_ShouldServeSnapshotPatchedFromChangeFeed() {
+        ProductResponse first = productService.createProduct(request("SNAP-1", "Snapshot tee"));
+        long firstId = Long.parseLong(first.getId().substring("prod_".length()));
+        relay.relay();
+        snapshotService.rebuild();
+
+        assertEquals(List.of("Snapshot tee"), names(productService.browseProducts(1, 10, "snapshot")));
+
+        ProductResponse second = productService.createProduct(request("SNAP-2", "Snapshot shorts"));
+        productService.updateProduct(firstId, request("SNAP-1", "Snapshot tee v2"), null);
+        assertEquals(List.of("Snapshot tee"), names(productService.browseProducts(1, 10, "snapshot")),
+                "writes show up once they reach the change feed");
+
+        relay.relay();
+        assertEquals(2, snapshotService.applyChanges());
+        PagedResponse<ProductResponse> page = productService.browseProducts(1, 10, "snapshot");
+        assertEquals(List.of("Snapshot shorts", "Snapshot tee v2"), names(page));
+        assertEquals(2L, page.getTotalItems());
+        assertEquals(second.getId(), page.getItems().get(0).getId());
+        assertEquals(List.of("snap"), page.getItems().get(0).getTags());
+
+        productService.deleteProduct(firstId);
+        relay.relay();
+        snapshotService.applyChanges();
+        assertEquals(List.of("Snapshot shorts"), names(productService.browseProducts(1, 10, "snapshot")));
+        assertEquals(snapshotService.current().size(), snapshotService.memoryUsage().rows());
+        assertEquals(0, snapshotService.applyChanges());
+    }
+
+    private static List<String> names(PagedResponse<ProductResponse> page) {
+        return page.getItems().stream().map(ProductResponse::getName).toList();
+    }
+
+    private static ProductRequest request(String sku, String name) {
+        return ProductRequest.builder()
+                .sku(sku)
+                .name(name)
+                .currency("USD")
+                .amount(1999)
+                .quantity(3)
+                .category("snapshot")
+                .tags(List.of("snap"))
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(
+            1, Duration.ofMillis(50), 10, false, 0, new ObjectMapper(), meterRegistry);
+
+    @Test
+    void doFilter_WhenPermitsExhausted_ShouldRejectWith503() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain blockingChain = (request, response) -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        Thread holder = Thread.ofVirtual().start(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/products"), new MockHttpServletResponse(), blockingChain);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/products"), rejected, (req, res) -> fail("should not run"));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("SERVICE_UNAVAILABLE"));
+        assertEquals(1, meterRegistry.get("catalog.admission.wait").tag("outcome", "rejected").timer().count());
+
+        release.countDown();
+        holder.join();
+    }
+
+    @Test
+    void permits_ByDefault_ShouldCoverPrimaryAndReplicaPools() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new AdmissionControlFilter(0, Duration.ofMillis(50), 10, true, 20, new ObjectMapper(), registry);
+
+        assertEquals(30, registry.get("catalog.admission.available").gauge().value());
+    }
+
+    @Test
+    void doFilter_HealthCheck_ShouldBypassAdmission() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        CountDownLatch ran = new CountDownLatch(1);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/health"), response, (req, res) -> ran.countDown());
+
+        assertEquals(0, ran.getCount());
+        assertEquals(0, meterRegistry.get("catalog.admission.wait").tag("outcome", "admitted").timer().count());
+    }
+}
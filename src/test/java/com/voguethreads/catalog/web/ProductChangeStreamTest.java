@@ -0,0 +1,145 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.voguethreads.catalog.dto.ProductChangeResponse;
+import com.voguethreads.catalog.dto.ProductRequest;
+import com.voguethreads.catalog.outbox.ProductOutboxRelay;
+import com.voguethreads.catalog.repository.ProductChangeEventRepository;
+import com.voguethreads.catalog.service.ProductChangeService;
+import com.voguethreads.catalog.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class ProductChangeStreamTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductChangeService productChangeService;
+
+    @Autowired
+    private ProductOutboxRelay relay;
+
+    @Autowired
+    private ProductChangeEventRepository eventRepository;
+
+    private ProductChangeStream stream;
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        // Catch-up runs inline so the test sees it finish before polling
+        stream = new ProductChangeStream(productChangeService, new SyncTaskExecutor(), admission(null), 60_000, 2);
+        relay.relay();
+        Long maxPosition = eventRepository.findMaxPosition();
+        since = maxPosition == null ? 0 : maxPosition;
+    }
+
+    @Test
+    void subscribe_ShouldCatchUpThenReceiveLiveChangesOnce() {
+        create("STREAM-1");
+        create("STREAM-2");
+        create("STREAM-3");
+        relay.relay();
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(since, emitter);
+        assertEquals(List.of(since + 1, since + 2, since + 3), emitter.positions());
+
+        create("STREAM-4");
+        relay.relay();
+        stream.poll();
+        stream.poll();
+
+        assertEquals(List.of(since + 1, since + 2, since + 3, since + 4), emitter.positions());
+    }
+
+    @Test
+    void subscribe_WhenClientGone_ShouldDropSubscriber() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(since, emitter);
+        assertEquals(1, stream.subscriberCount());
+
+        emitter.disconnected = true;
+        create("STREAM-5");
+        relay.relay();
+        stream.poll();
+
+        assertEquals(0, stream.subscriberCount());
+    }
+
+    @Test
+    void subscribe_WhenCatchUpCannotBeAdmitted_ShouldCloseTheStream() {
+        AdmissionControlFilter admission = new AdmissionControlFilter(
+                1, Duration.ofMillis(10), 10, false, 0, new ObjectMapper(), new SimpleMeterRegistry());
+        ProductChangeStream admitted = new ProductChangeStream(
+                productChangeService, new SyncTaskExecutor(), admission(admission), 60_000, 2);
+        create("STREAM-6");
+        relay.relay();
+
+        assertTrue(admission.acquire());
+        RecordingEmitter rejected = new RecordingEmitter();
+        admitted.subscribe(since, rejected);
+        assertEquals(List.of(), rejected.positions());
+        assertEquals(0, admitted.subscriberCount());
+
+        admission.release();
+        RecordingEmitter caughtUp = new RecordingEmitter();
+        admitted.subscribe(since, caughtUp);
+        assertEquals(List.of(since + 1), caughtUp.positions());
+        assertTrue(admission.acquire());
+        admission.release();
+    }
+
+    private void create(String sku) {
+        productService.createProduct(ProductRequest.builder()
+                .sku(sku).name("Stream " + sku).currency("USD").amount(1000).quantity(1).build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<AdmissionControlFilter> admission(AdmissionControlFilter filter) {
+        ObjectProvider<AdmissionControlFilter> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(filter);
+        return provider;
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            for (var part : builder.build()) {
+                if (part.getData() instanceof ProductChangeResponse change) {
+                    events.add(String.valueOf(change.getPosition()));
+                }
+            }
+        }
+
+        private List<Long> positions() {
+            return events.stream().map(Long::valueOf).toList();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private static final FilterChain OK = (request, response) -> { };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_WhenSearchBudgetExhausted_ShouldRejectWith429ButKeepDetailBudget() throws Exception {
+        RateLimitFilter filter = filter(poolPressure(Duration.ofSeconds(1)));
+
+        assertEquals(200, get(filter, "/products", "10.0.0.1").getStatus());
+        assertEquals(200, get(filter, "/products/facets", "10.0.0.1").getStatus());
+        MockHttpServletResponse limited = get(filter, "/products", "10.0.0.1");
+
+        assertEquals(429, limited.getStatus());
+        assertEquals("10", limited.getHeader("Retry-After"));
+        assertTrue(limited.getContentAsString().contains("RATE_LIMITED"));
+        assertEquals(200, get(filter, "/products/prod_1", "10.0.0.1").getStatus());
+        assertEquals(200, get(filter, "/products", "10.0.0.2").getStatus());
+        assertEquals(1, meterRegistry.get("catalog.ratelimit.rejected")
+                .tag("reason", "rate-limited").tag("budget", "search").counter().count());
+    }
+
+    @Test
+    void doFilter_AuthenticatedCallers_ShouldBeLimitedBySubjectNotAddress() throws Exception {
+        RateLimitFilter filter = filter(poolPressure(Duration.ofSeconds(1)));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, get(filter, "/products", "10.0.0.1").getStatus());
+        }
+
+        authenticate("user-1");
+        assertEquals(200, get(filter, "/products", "10.0.0.1").getStatus());
+        assertEquals(200, get(filter, "/products", "10.0.0.1").getStatus());
+        assertEquals(429, get(filter, "/products", "10.0.0.9").getStatus());
+    }
+
+    @Test
+    void doFilter_WhenPoolWaitsExceedThreshold_ShouldShedAnonymousReadsWith503() throws Exception {
+        PoolPressure poolPressure = poolPressure(Duration.ofMinutes(1));
+        RateLimitFilter filter = filter(poolPressure);
+        slowAcquire();
+        assertEquals(1.0, poolPressure.shedFraction());
+
+        MockHttpServletResponse shed = get(filter, "/products", "10.0.0.1");
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("SERVICE_UNAVAILABLE"));
+
+        authenticate("user-1");
+        assertEquals(200, get(filter, "/products", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void shedFraction_ShouldStepBackDownOnceWaitsRecover() {
+        PoolPressure poolPressure = new PoolPressure(meterRegistry, Duration.ofMillis(50), Duration.ZERO, 0.5, 0.9);
+
+        slowAcquire();
+        assertEquals(0.5, poolPressure.shedFraction());
+        slowAcquire();
+        assertEquals(0.9, poolPressure.shedFraction());
+        assertEquals(0.4, poolPressure.shedFraction(), 1e-9);
+        assertEquals(0.0, poolPressure.shedFraction());
+    }
+
+    @Test
+    void doFilter_Writes_ShouldNotBeLimited() throws Exception {
+        RateLimitFilter filter = filter(poolPressure(Duration.ofSeconds(1)));
+        for (int i = 0; i < 5; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/products/reservations");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, OK);
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    @Test
+    void budget_ShouldSeparateSingleProductReadsFromSearches() {
+        assertEquals(RateLimitFilter.Budget.SEARCH, RateLimitFilter.budget("/products", false));
+        assertEquals(RateLimitFilter.Budget.SEARCH, RateLimitFilter.budget("/products/export", false));
+        assertEquals(RateLimitFilter.Budget.SEARCH, RateLimitFilter.budget("/products/changes/stream", false));
+        assertEquals(RateLimitFilter.Budget.DETAIL, RateLimitFilter.budget("/products/prod_42", false));
+        assertEquals(RateLimitFilter.Budget.DETAIL, RateLimitFilter.budget("/products", true));
+    }
+
+    @Test
+    void doFilter_MultiGetByIds_ShouldDrawFromDetailBudget() throws Exception {
+        RateLimitFilter filter = filter(poolPressure(Duration.ofSeconds(1)));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, get(filter, "/products", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/products");
+        request.setRemoteAddr("10.0.0.1");
+        request.setParameter("ids", "prod_1,prod_2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, OK);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void doFilter_OrderService_ShouldNotBeLimited() throws Exception {
+        RateLimitFilter filter = filter(poolPressure(Duration.ofSeconds(1)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "order-service", null, List.of(new SimpleGrantedAuthority("ROLE_ORDER_SERVICE"))));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, get(filter, "/products", "10.0.0.1").getStatus());
+        }
+    }
+
+    // Two-request search burst refilling slowly, so the test cannot race the refill
+    private RateLimitFilter filter(PoolPressure poolPressure) {
+        return new RateLimitFilter(2, 0.1, 100, 50, 1_000, poolPressure, new ObjectMapper(), meterRegistry);
+    }
+
+    private PoolPressure poolPressure(Duration sampleInterval) {
+        return new PoolPressure(meterRegistry, Duration.ofMillis(50), sampleInterval, 1.0, 1.0);
+    }
+
+    private void slowAcquire() {
+        Timer.builder("hikaricp.connections.acquire").tag("pool", "test").register(meterRegistry)
+                .record(200, TimeUnit.MILLISECONDS);
+    }
+
+    private static MockHttpServletResponse get(RateLimitFilter filter, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, OK);
+        return response;
+    }
+
+    private static void authenticate(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, List.of()));
+    }
+}
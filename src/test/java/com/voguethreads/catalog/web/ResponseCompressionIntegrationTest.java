@@ -0,0 +1,125 @@
+package com.voguethreads.catalog.web;
+
+import com.voguethreads.catalog.dto.ProductRequest;
+import com.voguethreads.catalog.dto.ProductResponse;
+import com.voguethreads.catalog.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the embedded Tomcat, since compression happens in the connector, with the
+ * serialized response cache switched on.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:compression;DB_CLOSE_DELAY=-1",
+        "cache.serialized.enabled=true"
+})
+class ResponseCompressionIntegrationTest {
+
+    private static final String LONG_DESCRIPTION = "Heavyweight loopback cotton with a brushed interior. ".repeat(40);
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void getProduct_ShouldServeCachedGzipBytesAndDropThemOnUpdate() throws Exception {
+        ProductResponse product = productService.createProduct(request("GZIP-1", "Loopback hoodie", LONG_DESCRIPTION));
+
+        HttpResponse<byte[]> compressed = get("/products/" + product.getId(), "gzip, deflate", null);
+        assertEquals(200, compressed.statusCode());
+        assertEquals("gzip", compressed.headers().firstValue("Content-Encoding").orElse(null));
+        String eTag = compressed.headers().firstValue("ETag").orElseThrow();
+        assertTrue(eTag.endsWith("-gzip\""), eTag);
+        assertTrue(gunzip(compressed.body()).contains("\"name\":\"Loopback hoodie\""));
+
+        HttpResponse<byte[]> identity = get("/products/" + product.getId(), null, null);
+        assertTrue(identity.headers().firstValue("Content-Encoding").isEmpty());
+        assertEquals(eTag, ProductETags.withEncoding(identity.headers().firstValue("ETag").orElseThrow(), "gzip"));
+
+        assertEquals(304, get("/products/" + product.getId(), "gzip", eTag).statusCode());
+
+        long id = Long.parseLong(product.getId().substring("prod_".length()));
+        productService.updateProduct(id, request("GZIP-1", "Loopback hoodie v2", LONG_DESCRIPTION), null);
+        HttpResponse<byte[]> updated = get("/products/" + product.getId(), "gzip", eTag);
+        assertEquals(200, updated.statusCode());
+        assertTrue(gunzip(updated.body()).contains("\"name\":\"Loopback hoodie v2\""));
+    }
+
+    @Test
+    void getProduct_BelowThreshold_ShouldNotCompress() throws Exception {
+        ProductResponse product = productService.createProduct(request("GZIP-2", "Tee", "Short."));
+
+        HttpResponse<byte[]> response = get("/products/" + product.getId(), "gzip", null);
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Encoding").isEmpty());
+    }
+
+    @Test
+    void firstPage_ShouldBeDroppedWhenProductIsCreated() throws Exception {
+        productService.createProduct(request("GZIP-3", "First", LONG_DESCRIPTION));
+        assertFalse(new String(get("/products", null, null).body(), StandardCharsets.UTF_8).contains("GZIP-4"));
+
+        productService.createProduct(request("GZIP-4", "Second", LONG_DESCRIPTION));
+
+        assertTrue(new String(get("/products", null, null).body(), StandardCharsets.UTF_8).contains("GZIP-4"));
+    }
+
+    @Test
+    void listProducts_UncachedShape_ShouldBeCompressedByServer() throws Exception {
+        productService.createProduct(request("GZIP-5", "Sparse", LONG_DESCRIPTION));
+
+        HttpResponse<byte[]> response = get("/products?fields=name,description", "gzip", null);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(gunzip(response.body()).contains("\"name\":\"Sparse\""));
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding, String ifNoneMatch)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (acceptEncoding != null) {
+            request.header("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static ProductRequest request(String sku, String name, String description) {
+        return ProductRequest.builder()
+                .sku(sku)
+                .name(name)
+                .description(description)
+                .currency("USD")
+                .amount(5900)
+                .quantity(4)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.voguethreads.catalog.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.voguethreads.catalog.cache.ProductCache;
+import com.voguethreads.catalog.dto.PagedResponse;
+import com.voguethreads.catalog.dto.ProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerializedResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductCache productCache = new ProductCache(100, Duration.ofMinutes(10), meterRegistry);
+    private final SerializedResponseCache cache = new SerializedResponseCache(
+            new ObjectMapper().registerModule(new JavaTimeModule()), productCache, meterRegistry,
+            true, 100, Duration.ofMinutes(10), DataSize.ofKilobytes(2));
+
+    private final SerializedResponseCache.PageKey key = new SerializedResponseCache.PageKey(20, null);
+
+    @Test
+    void firstPage_ShouldBeLoadedOnceAndServedFromBytes() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.firstPage(key, () -> page("before", loads));
+        SerializedResponseCache.Body body = cache.firstPage(key, () -> page("after", loads));
+
+        assertEquals(1, loads.get());
+        assertTrue(json(body).contains("before"));
+    }
+
+    @Test
+    void firstPage_WhenProductWrittenDuringLoad_ShouldNotKeepThePageReadBeforeTheWrite() {
+        AtomicInteger loads = new AtomicInteger();
+
+        // The write evicts while the first load is still running, as a concurrent request would
+        SerializedResponseCache.Body inFlight = cache.firstPage(key, () -> {
+            PagedResponse<ProductResponse> stale = page("before", loads);
+            productCache.evict(1L);
+            return stale;
+        });
+        SerializedResponseCache.Body next = cache.firstPage(key, () -> page("after", loads));
+        SerializedResponseCache.Body cached = cache.firstPage(key, () -> page("again", loads));
+
+        assertTrue(json(inFlight).contains("before"));
+        assertTrue(json(next).contains("after"));
+        assertSame(next, cached);
+        assertEquals(2, loads.get());
+    }
+
+    private static PagedResponse<ProductResponse> page(String name, AtomicInteger loads) {
+        loads.incrementAndGet();
+        ProductResponse product = ProductResponse.builder()
+                .id("prod_1")
+                .name(name)
+                .updatedAt(Instant.parse("2024-01-02T00:00:00Z"))
+                .build();
+        return PagedResponse.<ProductResponse>builder().items(List.of(product)).page(1).pageSize(20).build();
+    }
+
+    private static String json(SerializedResponseCache.Body body) {
+        return new String(body.json(), StandardCharsets.UTF_8);
+    }
+}
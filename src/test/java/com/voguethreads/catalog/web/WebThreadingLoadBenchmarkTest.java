@@ -0,0 +1,143 @@
+package com.voguethreads.catalog.web;
+
+import com.voguethreads.catalog.CatalogServiceApplication;
+import com.voguethreads.catalog.model.Product;
+import com.voguethreads.catalog.repository.ProductRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bursty load comparison between platform-thread and virtual-thread request execution.
+ *
+ * <p>Boots the service twice on random ports against an embedded database and fires the same
+ * burst of listing requests at each. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class WebThreadingLoadBenchmarkTest {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 500);
+    private static final int WARMUP_REQUESTS = 1_000;
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        System.out.printf("Load test: %,d requests, %d concurrent clients, GET /products?pageSize=20%n",
+                REQUESTS, CONCURRENCY);
+        System.out.println("  mode      throughput(req/s)   p50(ms)   p99(ms)   errors");
+        print("platform", platform);
+        print("virtual", virtual);
+
+        assertTrue(platform.completed() > 0 && virtual.completed() > 0);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CatalogServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads,
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.voguethreads=WARN",
+                        "logging.level.org.springframework.web=WARN",
+                        "logging.level.org.hibernate.SQL=WARN")
+                .run()) {
+            seed(context.getBean(ProductRepository.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+            URI uri = URI.create("http://localhost:" + port + contextPath + "/products?pageSize=20");
+            fire(uri, WARMUP_REQUESTS);
+            return fire(uri, REQUESTS);
+        }
+    }
+
+    private void seed(ProductRepository repository) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            products.add(Product.builder()
+                    .sku("LOAD-" + i)
+                    .name("Load product " + i)
+                    .description("Load test product " + i)
+                    .currency("USD")
+                    .amount(1000 + i)
+                    .quantity(10)
+                    .inStock(true)
+                    .category("load")
+                    .tags(List.of("load"))
+                    .build());
+        }
+        repository.saveAll(products);
+    }
+
+    private Result fire(URI uri, int requests) throws Exception {
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger errors = new AtomicInteger();
+        long[] latencies = new long[requests];
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                int index = i;
+                inFlight.acquire();
+                futures.add(clients.submit(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    } finally {
+                        latencies[index] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(requests - errors.get(), errors.get(), elapsed, latencies);
+    }
+
+    private static void print(String mode, Result result) {
+        System.out.printf("  %-9s %17.0f %9.1f %9.1f %8d%n", mode,
+                result.completed() / (result.elapsedNanos() / 1e9),
+                result.percentileMillis(50), result.percentileMillis(99), result.errors());
+    }
+
+    private record Result(int completed, int errors, long elapsedNanos, long[] latencies) {
+
+        double percentileMillis(int percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}